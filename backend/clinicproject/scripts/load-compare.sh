@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Compara a capacidade de requisições concorrentes entre threads de plataforma e virtuais.
+#
+# Dispara CONCURRENCY downloads lentos (--limit-rate) do ZIP de anexos de um prontuário e, ao mesmo
+# tempo, mede a latência de GET /pets. Rode uma vez com a aplicação em modo padrão e outra com
+#   VIRTUAL_THREADS=true ./gradlew bootRun -PjavaVersion=21
+# e compare "wall time" e a latência das leituras.
+#
+# Uso: scripts/load-compare.sh [RECORD_ID]  (sem RECORD_ID, cria um prontuário com ATTACHMENTS anexos)
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080/service-clinic}
+CONCURRENCY=${CONCURRENCY:-64}
+RATE=${RATE:-256k}
+ATTACHMENT_KB=${ATTACHMENT_KB:-1000}
+ATTACHMENTS=${ATTACHMENTS:-8}
+PROBES=${PROBES:-10}
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+json_field() {
+  python3 -c "import json,sys; print(json.load(sys.stdin)$1)"
+}
+
+seed() {
+  local suffix tutor_id vet_id pet_id
+  suffix=$(date +%s%N | tail -c 9)
+  curl -sf -XPOST "$BASE_URL/tutors" -H 'Content-Type: application/json' -d "{
+    \"name\":\"Carga $suffix\",\"cpf\":\"9${suffix}00\",\"email\":\"carga$suffix@x.com\",
+    \"phone\":\"35999999999\",\"password\":\"Abcdef1@\",\"birthDate\":\"1990-01-01\",
+    \"address\":\"Rua\"}" >/dev/null
+  curl -sf -XPOST "$BASE_URL/users" -H 'Content-Type: application/json' -d "{
+    \"name\":\"Vet $suffix\",\"cpf\":\"8${suffix}00\",\"email\":\"vet$suffix@x.com\",
+    \"phone\":\"35999999999\",\"role\":\"VETERINARIO\",\"admissionDate\":\"2020-01-01\",
+    \"username\":\"vet$suffix\",\"password\":\"Abcdef1@\"}" >/dev/null
+  tutor_id=$(curl -sf "$BASE_URL/tutors/search?cpf=9${suffix}00" | json_field "['items'][0]['id']")
+  vet_id=$(curl -sf "$BASE_URL/users/search?cpf=8${suffix}00" | json_field "['items'][0]['id']")
+  curl -sf -XPOST "$BASE_URL/pets/$tutor_id" -H 'Content-Type: application/json' -d '{
+    "name":"Carga","species":"cao","breed":"srd","sex":"M","birthDate":"2020-01-01",
+    "color":"preto","weight":3}' >/dev/null
+  pet_id=$(curl -sf "$BASE_URL/pets?ownerCpf=9${suffix}00" | json_field "['items'][0]['id']")
+
+  head -c $((ATTACHMENT_KB * 1024)) /dev/urandom >"$WORK/exame.png"
+  echo "{\"petId\":\"$pet_id\",\"veterinarianId\":\"$vet_id\",\"consultationDate\":\"2025-01-01\",
+    \"diagnosis\":\"Teste de carga\",\"prescription\":\"-\"}" >"$WORK/data.json"
+  local files=()
+  for i in $(seq 1 "$ATTACHMENTS"); do files+=(-F "files=@$WORK/exame.png;filename=exame-$i.png"); done
+  curl -sf -XPOST "$BASE_URL/medical-records" \
+    -F "data=@$WORK/data.json;type=application/json" "${files[@]}" >/dev/null
+  curl -sf "$BASE_URL/medical-records/search?petId=$pet_id" | json_field "['items'][0]['id']"
+}
+
+RECORD_ID=${1:-$(seed)}
+echo "record=$RECORD_ID concurrency=$CONCURRENCY rate=$RATE attachments=${ATTACHMENTS}x${ATTACHMENT_KB}KB"
+
+start=$(date +%s.%N)
+for i in $(seq 1 "$CONCURRENCY"); do
+  curl -s -o /dev/null --limit-rate "$RATE" -w '%{http_code} %{time_starttransfer} %{time_total}\n' \
+    "$BASE_URL/medical-records/attachments/$RECORD_ID" >"$WORK/download-$i.txt" &
+done
+
+sleep 1
+for i in $(seq 1 "$PROBES"); do
+  curl -s -o /dev/null -w '%{time_total}\n' "$BASE_URL/pets?size=20" >>"$WORK/probes.txt"
+done
+wait
+end=$(date +%s.%N)
+
+cat "$WORK"/download-*.txt | python3 -c "
+import sys
+rows = [line.split() for line in sys.stdin if line.strip()]
+ok = [r for r in rows if r[0] == '200']
+first = sorted(float(r[1]) for r in ok)
+total = sorted(float(r[2]) for r in ok)
+print(f'downloads: {len(ok)}/{len(rows)} ok')
+if ok:
+    print(f'  first byte: min={first[0]:.2f}s p50={first[len(first)//2]:.2f}s max={first[-1]:.2f}s')
+    print(f'  duration:   min={total[0]:.2f}s p50={total[len(total)//2]:.2f}s max={total[-1]:.2f}s')
+"
+python3 -c "
+probes = sorted(float(l) for l in open('$WORK/probes.txt'))
+print(f'GET /pets during load: p50={probes[len(probes)//2]*1000:.0f}ms max={probes[-1]*1000:.0f}ms')
+"
+python3 -c "print(f'wall time: {$end - $start:.1f}s')"
@@ -0,0 +1,69 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.dtos.response.AttachmentResponse;
+import br.com.unifei.clinicproject.services.AttachmentArchiveService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/** Geração do ZIP de anexos (endpoint /medical-records/attachments/{id}) para um stream nulo. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AttachmentZipBenchmark {
+
+  @Param({"1048576"})
+  private int fileSize;
+
+  private AttachmentArchiveService archiveService;
+  private Path directory;
+  private List<AttachmentResponse> attachments;
+
+  @Setup
+  public void setup() throws IOException {
+    archiveService = new AttachmentArchiveService();
+    directory = Files.createTempDirectory("zip-benchmark");
+    attachments = new ArrayList<>();
+
+    Random random = new Random(42);
+
+    // Imagem (conteúdo aleatório, incompressível) e texto (muito compressível)
+    byte[] image = new byte[fileSize];
+    random.nextBytes(image);
+    attachments.add(write("radiografia.png", image));
+
+    byte[] text = "Paciente estável, sem alterações. ".repeat(fileSize / 34).getBytes();
+    attachments.add(write("laudo.txt", text));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void writeZip() throws IOException {
+    archiveService.writeZip(attachments, OutputStream.nullOutputStream());
+  }
+
+  private AttachmentResponse write(String name, byte[] content) throws IOException {
+    Path path = directory.resolve(name);
+    Files.write(path, content);
+
+    AttachmentResponse attachment = new AttachmentResponse();
+    attachment.setFileName(name);
+    attachment.setFilePath(path.toString());
+    attachment.setFileSize((long) content.length);
+    return attachment;
+  }
+}
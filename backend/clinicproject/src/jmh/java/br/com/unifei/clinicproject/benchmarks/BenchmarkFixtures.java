@@ -0,0 +1,97 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.entities.MedicalRecordAttachmentEntity;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.entities.UserEntity;
+import br.com.unifei.clinicproject.enums.UserRole;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Entidades em memória usadas pelos benchmarks que não precisam de banco. */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {}
+
+  static TutorEntity tutor(int i) {
+    return TutorEntity.builder()
+        .id(UUID.randomUUID().toString())
+        .name("Tutor " + i)
+        .cpf(String.format("%011d", i))
+        .email("tutor" + i + "@clinic.com")
+        .phone("35999990000")
+        .address("Rua " + i)
+        .birthDate(LocalDate.of(1990, 1, 1))
+        .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+        .build();
+  }
+
+  static UserEntity veterinarian(int i) {
+    return UserEntity.builder()
+        .id(UUID.randomUUID().toString())
+        .name("Vet " + i)
+        .cpf(String.format("%011d", 90_000_000 + i))
+        .email("vet" + i + "@clinic.com")
+        .phone("35999990000")
+        .role(UserRole.VETERINARIO)
+        .admissionDate(LocalDate.of(2020, 1, 1))
+        .username("vet" + i)
+        .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+        .build();
+  }
+
+  static PetEntity pet(int i, TutorEntity tutor) {
+    return PetEntity.builder()
+        .id(UUID.randomUUID().toString())
+        .name("Pet " + i)
+        .species(i % 2 == 0 ? "cachorro" : "gato")
+        .breed(i % 3 == 0 ? "Labrador" : "SRD")
+        .sex(i % 2 == 0 ? "MACHO" : "FEMEA")
+        .birthDate(LocalDate.of(2015 + i % 8, 1 + i % 12, 1 + i % 28))
+        .color("preto")
+        .weight(5.0 + i % 30)
+        .notes("Observações do pet " + i)
+        .tutor(tutor)
+        .build();
+  }
+
+  static MedicalRecordEntity record(int i, PetEntity pet, UserEntity vet, int attachments) {
+    MedicalRecordEntity record =
+        MedicalRecordEntity.builder()
+            .id(UUID.randomUUID().toString())
+            .pet(pet)
+            .veterinarian(vet)
+            .consultationDate(LocalDate.of(2024, 1, 1).plusDays(i))
+            .diagnosis("Dermatite alérgica recorrente, caso " + i)
+            .prescription("Pomada tópica duas vezes ao dia por 10 dias")
+            .notes("Retorno em 15 dias")
+            .build();
+
+    for (int a = 0; a < attachments; a++) {
+      MedicalRecordAttachmentEntity attachment = new MedicalRecordAttachmentEntity();
+      attachment.setId(UUID.randomUUID().toString());
+      attachment.setFileName("exame-" + a + ".png");
+      attachment.setFilePath("uploads/ab/cd/" + UUID.randomUUID());
+      attachment.setFileSize(1024L * 1024);
+      attachment.setMedicalRecord(record);
+      record.getAttachments().add(attachment);
+    }
+
+    return record;
+  }
+
+  static List<MedicalRecordEntity> records(int count) {
+    TutorEntity tutor = tutor(0);
+    PetEntity pet = pet(0, tutor);
+    UserEntity vet = veterinarian(0);
+
+    List<MedicalRecordEntity> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      records.add(record(i, pet, vet, 2));
+    }
+    return records;
+  }
+}
@@ -0,0 +1,79 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.ClinicprojectApplication;
+import br.com.unifei.clinicproject.dtos.response.PetResponse;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.services.PetService;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@code PetService.findById} para um conjunto quente de ids, com o cache de DTOs desligado
+ * ({@code cacheSize=0}) e ligado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DetailLookupBenchmark {
+
+  @Param({"0", "10000"})
+  private int cacheSize;
+
+  @Param({"100"})
+  private int hotIds;
+
+  private ConfigurableApplicationContext context;
+  private PetService petService;
+  private List<String> ids;
+
+  @Setup
+  public void setup() throws Exception {
+    context =
+        new SpringApplicationBuilder(ClinicprojectApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:detail-benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "cache.specs.pets.max-size=" + cacheSize,
+                "file.upload-dir=" + Files.createTempDirectory("benchmark-uploads"))
+            .run();
+
+    TutorEntity tutor = BenchmarkFixtures.tutor(0);
+    tutor.setId(null);
+    tutor = context.getBean(TutorRepository.class).save(tutor);
+
+    List<PetEntity> pets = new ArrayList<>();
+    for (int i = 0; i < hotIds; i++) {
+      PetEntity pet = BenchmarkFixtures.pet(i, tutor);
+      pet.setId(null);
+      pets.add(pet);
+    }
+    ids =
+        context.getBean(PetRepository.class).saveAll(pets).stream().map(PetEntity::getId).toList();
+
+    petService = context.getBean(PetService.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public PetResponse findById() {
+    return petService.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+  }
+}
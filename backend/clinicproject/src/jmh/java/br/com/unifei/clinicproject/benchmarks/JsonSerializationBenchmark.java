@@ -0,0 +1,55 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
+import br.com.unifei.clinicproject.dtos.response.PetResponse;
+import br.com.unifei.clinicproject.dtos.response.TutorResponse;
+import br.com.unifei.clinicproject.mappers.MedicalMapperImpl;
+import br.com.unifei.clinicproject.mappers.PetMapperImpl;
+import br.com.unifei.clinicproject.mappers.TutorMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+  @Param({"200"})
+  private int records;
+
+  private ObjectMapper objectMapper;
+
+  private PetResponse pet;
+  private TutorResponse tutor;
+  private List<MedicalRecordResponse> medicalRecords;
+
+  @Setup
+  public void setup() {
+    // Mesma configuração base que o Spring MVC usa (módulo java.time etc.)
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    var tutorEntity = BenchmarkFixtures.tutor(1);
+    pet = new PetMapperImpl().toResponseDto(BenchmarkFixtures.pet(1, tutorEntity));
+    tutor = new TutorMapperImpl().toResponseDTO(tutorEntity);
+    medicalRecords = new MedicalMapperImpl().toResponseDto(BenchmarkFixtures.records(records));
+  }
+
+  @Benchmark
+  public byte[] pet() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(pet);
+  }
+
+  @Benchmark
+  public byte[] tutor() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(tutor);
+  }
+
+  @Benchmark
+  public byte[] medicalRecordList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(medicalRecords);
+  }
+}
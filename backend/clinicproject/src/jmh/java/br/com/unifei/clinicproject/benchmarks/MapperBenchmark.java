@@ -0,0 +1,52 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
+import br.com.unifei.clinicproject.dtos.response.PetResponse;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.mappers.MedicalMapper;
+import br.com.unifei.clinicproject.mappers.MedicalMapperImpl;
+import br.com.unifei.clinicproject.mappers.PetMapper;
+import br.com.unifei.clinicproject.mappers.PetMapperImpl;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+  @Param({"200"})
+  private int records;
+
+  private PetMapper petMapper;
+  private MedicalMapper medicalMapper;
+
+  private PetEntity pet;
+  private List<MedicalRecordEntity> medicalRecords;
+
+  @Setup
+  public void setup() {
+    petMapper = new PetMapperImpl();
+    medicalMapper = new MedicalMapperImpl();
+
+    pet = BenchmarkFixtures.pet(1, BenchmarkFixtures.tutor(1));
+    medicalRecords = BenchmarkFixtures.records(records);
+  }
+
+  @Benchmark
+  public PetResponse petToResponse() {
+    return petMapper.toResponseDto(pet);
+  }
+
+  @Benchmark
+  public Integer petCalculateAge() {
+    return petMapper.calculateAge(pet.getBirthDate());
+  }
+
+  @Benchmark
+  public List<MedicalRecordResponse> medicalRecordListToResponse() {
+    return medicalMapper.toResponseDto(medicalRecords);
+  }
+}
@@ -0,0 +1,29 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PasswordEncoderBenchmark {
+
+  // Mesmo custo usado hoje pelos serviços (default do BCryptPasswordEncoder)
+  @Param({"10"})
+  private int strength;
+
+  private BCryptPasswordEncoder encoder;
+
+  @Setup
+  public void setup() {
+    encoder = new BCryptPasswordEncoder(strength);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode("Senha@2024");
+  }
+}
@@ -0,0 +1,174 @@
+package br.com.unifei.clinicproject.benchmarks;
+
+import br.com.unifei.clinicproject.ClinicprojectApplication;
+import br.com.unifei.clinicproject.dtos.request.TutorFilterRequest;
+import br.com.unifei.clinicproject.dtos.request.UserFilterRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
+import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
+import br.com.unifei.clinicproject.dtos.response.PetResponse;
+import br.com.unifei.clinicproject.dtos.response.TutorResponse;
+import br.com.unifei.clinicproject.dtos.response.UserResponse;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.entities.UserEntity;
+import br.com.unifei.clinicproject.enums.UserRole;
+import br.com.unifei.clinicproject.repositories.MedicalRecordRepository;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.UserRepository;
+import br.com.unifei.clinicproject.search.MedicalRecordIndex;
+import br.com.unifei.clinicproject.search.NameSearchIndex;
+import br.com.unifei.clinicproject.services.MedicalRecordService;
+import br.com.unifei.clinicproject.services.PetService;
+import br.com.unifei.clinicproject.services.TutorService;
+import br.com.unifei.clinicproject.services.UserService;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Buscas dos serviços contra um H2 em memória populado: montagem da {@code Specification},
+ * execução da consulta e mapeamento da primeira página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+  @Param({"2000"})
+  private int pets;
+
+  private ConfigurableApplicationContext context;
+
+  private PetService petService;
+  private TutorService tutorService;
+  private UserService userService;
+  private MedicalRecordService medicalRecordService;
+
+  private TransactionTemplate transaction;
+
+  private String petWithRecords;
+
+  @Setup
+  public void setup() throws Exception {
+    context =
+        new SpringApplicationBuilder(ClinicprojectApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "file.upload-dir=" + Files.createTempDirectory("benchmark-uploads"))
+            .run();
+
+    seed();
+
+    petService = context.getBean(PetService.class);
+    tutorService = context.getBean(TutorService.class);
+    userService = context.getBean(UserService.class);
+    medicalRecordService = context.getBean(MedicalRecordService.class);
+
+    // Na API o mapeamento roda com a sessão aberta pelo open-in-view; aqui, numa transação
+    transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    transaction.setReadOnly(true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  private void seed() {
+    var tutorRepository = context.getBean(TutorRepository.class);
+    var petRepository = context.getBean(PetRepository.class);
+    var userRepository = context.getBean(UserRepository.class);
+    var recordRepository = context.getBean(MedicalRecordRepository.class);
+
+    List<TutorEntity> tutors = new ArrayList<>();
+    for (int i = 0; i < pets / 10; i++) {
+      TutorEntity tutor = BenchmarkFixtures.tutor(i);
+      tutor.setId(null);
+      tutors.add(tutor);
+    }
+    tutors = tutorRepository.saveAll(tutors);
+
+    List<PetEntity> petEntities = new ArrayList<>();
+    for (int i = 0; i < pets; i++) {
+      PetEntity pet = BenchmarkFixtures.pet(i, tutors.get(i % tutors.size()));
+      pet.setId(null);
+      petEntities.add(pet);
+    }
+    petEntities = petRepository.saveAll(petEntities);
+
+    List<UserEntity> users = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      UserEntity user = BenchmarkFixtures.veterinarian(i);
+      user.setId(null);
+      if (i % 5 != 0) user.setRole(UserRole.ATENDENTE);
+      users.add(user);
+    }
+    users = userRepository.saveAll(users);
+
+    PetEntity pet = petEntities.get(0);
+    petWithRecords = pet.getId();
+
+    List<MedicalRecordEntity> records = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      var record = BenchmarkFixtures.record(i, pet, users.get(0), 2);
+      record.setId(null);
+      record.getAttachments().forEach(a -> a.setId(null));
+      records.add(record);
+    }
+    recordRepository.saveAll(records);
+
+    // Os índices em memória são montados na subida, antes dos dados acima
+    context.getBean(NameSearchIndex.class).rebuild();
+    context.getBean(MedicalRecordIndex.class).rebuild();
+  }
+
+  @Benchmark
+  public CursorPageResponse<PetResponse> findPets() {
+    return transaction.execute(
+        status -> petService.findPets(null, null, null, null, null, "name", false, null, 20));
+  }
+
+  @Benchmark
+  public CursorPageResponse<PetResponse> findPetsByNameAndOwner() {
+    return transaction.execute(
+        status ->
+            petService.findPets("Pet 1", "gato", null, "Tutor", null, "owner", false, null, 20));
+  }
+
+  @Benchmark
+  public CursorPageResponse<TutorResponse> findTutors() {
+    var filter = new TutorFilterRequest();
+    filter.setName("tutor 1");
+    return transaction.execute(
+        status -> tutorService.findByFilters(filter, "name", false, null, 20));
+  }
+
+  @Benchmark
+  public CursorPageResponse<UserResponse> findUsers() {
+    var filter = new UserFilterRequest();
+    filter.setRole(UserRole.ATENDENTE);
+    return transaction.execute(status -> userService.findByFilters(filter, "date", null, 20));
+  }
+
+  @Benchmark
+  public CursorPageResponse<MedicalRecordResponse> searchMedicalRecords() {
+    return transaction.execute(
+        status ->
+            medicalRecordService.search(
+                petWithRecords, null, null, null, "dermatite", null, 20));
+  }
+}
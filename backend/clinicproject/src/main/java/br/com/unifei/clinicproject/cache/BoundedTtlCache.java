@@ -0,0 +1,199 @@
+package br.com.unifei.clinicproject.cache;
+
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Cache em memória limitado por tamanho (LRU) e por tempo de vida. Lock curto em vez de
+ * {@code synchronized} para não prender threads virtuais ao carrier.
+ *
+ * <p>Cada invalidação avança a geração da faixa da chave, e um valor carregado por {@link
+ * #get(Object, Callable)} só entra no cache se a geração não mudou durante o carregamento: uma
+ * leitura que começou antes do commit de uma alteração não recoloca o valor antigo depois da
+ * invalidação. Por isso os {@code @Cacheable} usam {@code sync = true}.
+ */
+public class BoundedTtlCache extends AbstractValueAdaptingCache {
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final String name;
+  private final int maxSize;
+  private final long ttlNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  // Invalidações por faixa de chaves (protegido por lock)
+  private final long[] generations = new long[GENERATION_STRIPES];
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  private record Entry(Object value, long expiresAt) {}
+
+  public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+    super(false);
+    this.name = name;
+    this.maxSize = maxSize;
+    // ttl zero desliga a expiração; só o limite de tamanho vale
+    this.ttlNanos = ttl.isNegative() ? 0 : ttl.toNanos();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return entries;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    long now = System.nanoTime();
+
+    lock.lock();
+    try {
+      Entry entry = entries.get(key);
+      if (entry != null && ttlNanos > 0 && now - entry.expiresAt() >= 0) {
+        entries.remove(key);
+        expirations.increment();
+        entry = null;
+      }
+
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+
+      hits.increment();
+      return entry.value();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    Object cached = lookup(key);
+    if (cached != null) return (T) fromStoreValue(cached);
+
+    long generation = generation(key);
+
+    // O carregamento fica fora do lock; leituras concorrentes do mesmo id podem carregar em dobro
+    T value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+    store(key, value, generation);
+    return value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    store(key, value, -1);
+  }
+
+  // generation < 0 grava sempre; senão só se a chave não foi invalidada desde então
+  private void store(Object key, Object value, long generation) {
+    if (maxSize <= 0 || value == null) return;
+
+    Entry entry = new Entry(toStoreValue(value), System.nanoTime() + ttlNanos);
+
+    lock.lock();
+    try {
+      if (generation >= 0 && generations[stripe(key)] != generation) return;
+
+      entries.put(key, entry);
+      puts.increment();
+
+      // Ordem de acesso: o primeiro é o menos usado recentemente
+      Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator();
+      while (entries.size() > maxSize) {
+        eldest.next();
+        eldest.remove();
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Dentro de uma transação, a invalidação só vale após o commit: antes disso, uma leitura
+   * concorrente recolocaria no cache o valor antigo.
+   */
+  @Override
+  public void evict(Object key) {
+    AfterCommit.run(
+        () -> {
+          lock.lock();
+          try {
+            entries.remove(key);
+            generations[stripe(key)]++;
+          } finally {
+            lock.unlock();
+          }
+        });
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      entries.clear();
+      for (int i = 0; i < GENERATION_STRIPES; i++) {
+        generations[i]++;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long generation(Object key) {
+    lock.lock();
+    try {
+      return generations[stripe(key)];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static int stripe(Object key) {
+    return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+  }
+
+  public CacheStats stats() {
+    int size;
+    lock.lock();
+    try {
+      size = entries.size();
+    } finally {
+      lock.unlock();
+    }
+
+    return new CacheStats(
+        name,
+        size,
+        maxSize,
+        ttlNanos == 0 ? null : Duration.ofNanos(ttlNanos),
+        hits.sum(),
+        misses.sum(),
+        puts.sum(),
+        evictions.sum(),
+        expirations.sum());
+  }
+}
@@ -0,0 +1,58 @@
+package br.com.unifei.clinicproject.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Expõe os contadores de um {@link BoundedTtlCache} nas métricas padrão de cache do Micrometer
+ * ({@code cache.gets}, {@code cache.puts}, {@code cache.evictions}, {@code cache.size}).
+ */
+public class BoundedTtlCacheMetrics extends CacheMeterBinder<BoundedTtlCache> {
+
+  public BoundedTtlCacheMetrics(BoundedTtlCache cache, Iterable<Tag> tags) {
+    super(cache, cache.getName(), tags);
+  }
+
+  @Override
+  protected Long size() {
+    BoundedTtlCache cache = getCache();
+    return cache == null ? null : (long) cache.stats().size();
+  }
+
+  @Override
+  protected long hitCount() {
+    BoundedTtlCache cache = getCache();
+    return cache == null ? 0 : cache.stats().hits();
+  }
+
+  @Override
+  protected Long missCount() {
+    BoundedTtlCache cache = getCache();
+    return cache == null ? null : cache.stats().misses();
+  }
+
+  @Override
+  protected Long evictionCount() {
+    BoundedTtlCache cache = getCache();
+    return cache == null ? null : cache.stats().evictions();
+  }
+
+  @Override
+  protected long putCount() {
+    BoundedTtlCache cache = getCache();
+    return cache == null ? 0 : cache.stats().puts();
+  }
+
+  @Override
+  protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    FunctionCounter.builder(
+            "cache.expirations",
+            getCache(),
+            cache -> cache == null ? 0 : cache.stats().expirations())
+        .tags(getTagsWithCacheName())
+        .description("Entries removed because their time to live elapsed")
+        .register(registry);
+  }
+}
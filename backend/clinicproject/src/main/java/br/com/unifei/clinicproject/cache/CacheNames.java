@@ -0,0 +1,12 @@
+package br.com.unifei.clinicproject.cache;
+
+/** Nomes dos caches usados nos {@code @Cacheable}/{@code @CacheEvict} dos serviços. */
+public final class CacheNames {
+
+  public static final String PETS = "pets";
+  public static final String TUTORS = "tutors";
+  public static final String USERS = "users";
+  public static final String MEDICAL_RECORDS = "medical-records";
+
+  private CacheNames() {}
+}
@@ -0,0 +1,21 @@
+package br.com.unifei.clinicproject.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuração por cache: {@code cache.specs.<nome>.max-size} e {@code cache.specs.<nome>.ttl}.
+ * Caches sem entrada própria usam {@code cache.defaults}.
+ */
+@ConfigurationProperties(prefix = "cache")
+public record CacheProperties(@DefaultValue Spec defaults, Map<String, Spec> specs) {
+
+  public record Spec(
+      @DefaultValue("1000") int maxSize, @DefaultValue("10m") Duration ttl) {}
+
+  public Spec specFor(String name) {
+    return specs == null ? defaults : specs.getOrDefault(name, defaults);
+  }
+}
@@ -0,0 +1,26 @@
+package br.com.unifei.clinicproject.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Duration;
+
+/**
+ * Contadores de um cache desde a subida. {@code evictions} conta só as remoções por tamanho;
+ * invalidações por escrita não entram.
+ */
+public record CacheStats(
+    String name,
+    int size,
+    int maxSize,
+    Duration ttl,
+    long hits,
+    long misses,
+    long puts,
+    long evictions,
+    long expirations) {
+
+  @JsonProperty
+  public double hitRate() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+}
@@ -0,0 +1,96 @@
+package br.com.unifei.clinicproject.cache;
+
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contador de escritas por tipo de entidade, incrementado depois de cada commit que insere, altera
+ * ou remove uma delas. Serve de ETag barata para as listagens: qualquer escrita num dos tipos de
+ * que a listagem depende muda o valor, sem consultar o banco. Os contadores recomeçam a cada
+ * subida, por isso o instante da subida faz parte da ETag.
+ */
+@Component
+public class CollectionVersions
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Map<Class<?>, AtomicLong> counters = new ConcurrentHashMap<>();
+
+  public CollectionVersions(EntityManagerFactory entityManagerFactory) {
+    EventListenerRegistry registry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  /**
+   * ETag das listagens montadas a partir destes tipos. Leia antes de consultar os dados: uma
+   * escrita concorrente no meio gera, no pior caso, uma ETag mais velha que o conteúdo.
+   */
+  public String etag(Class<?>... entityTypes) {
+    long sum = 0;
+    for (Class<?> type : entityTypes) {
+      sum += counter(type).get();
+    }
+    return epoch + "-" + sum;
+  }
+
+  /** Para escritas que não passam pelo Hibernate (JDBC direto). */
+  public void touch(Class<?> entityType) {
+    AfterCommit.run(() -> counter(entityType).incrementAndGet());
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    counter(event.getPersister().getMappedClass()).incrementAndGet();
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    counter(event.getPersister().getMappedClass()).incrementAndGet();
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    counter(event.getPersister().getMappedClass()).incrementAndGet();
+  }
+
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return true;
+  }
+
+  private AtomicLong counter(Class<?> entityType) {
+    return counters.computeIfAbsent(entityType, type -> new AtomicLong());
+  }
+}
@@ -0,0 +1,40 @@
+package br.com.unifei.clinicproject.cache;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+/** Gerenciador dos caches de DTOs de resposta, um {@link BoundedTtlCache} por tipo. */
+public class ResponseCacheManager extends AbstractCacheManager {
+
+  private final CacheProperties properties;
+
+  public ResponseCacheManager(CacheProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  protected Collection<? extends Cache> loadCaches() {
+    if (properties.specs() == null) return List.of();
+
+    return properties.specs().keySet().stream().map(this::create).toList();
+  }
+
+  @Override
+  protected Cache getMissingCache(String name) {
+    return create(name);
+  }
+
+  public List<CacheStats> stats() {
+    return getCacheNames().stream()
+        .map(this::lookupCache)
+        .map(cache -> ((BoundedTtlCache) cache).stats())
+        .toList();
+  }
+
+  private BoundedTtlCache create(String name) {
+    CacheProperties.Spec spec = properties.specFor(name);
+    return new BoundedTtlCache(name, spec.maxSize(), spec.ttl());
+  }
+}
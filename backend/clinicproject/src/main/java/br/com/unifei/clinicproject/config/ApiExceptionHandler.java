@@ -0,0 +1,43 @@
+package br.com.unifei.clinicproject.config;
+
+import br.com.unifei.clinicproject.exceptions.InvalidChunkException;
+import br.com.unifei.clinicproject.exceptions.InvalidPageRequestException;
+import br.com.unifei.clinicproject.exceptions.ServiceOverloadedException;
+import br.com.unifei.clinicproject.exceptions.UploadConflictException;
+import br.com.unifei.clinicproject.exceptions.UploadSessionNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<String> handleOverloaded(ServiceOverloadedException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+        .body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidPageRequestException.class)
+  public ResponseEntity<String> handleInvalidPage(InvalidPageRequestException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidChunkException.class)
+  public ResponseEntity<String> handleInvalidChunk(InvalidChunkException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+
+  @ExceptionHandler(UploadSessionNotFoundException.class)
+  public ResponseEntity<String> handleUploadSessionNotFound(UploadSessionNotFoundException e) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+  }
+
+  @ExceptionHandler(UploadConflictException.class)
+  public ResponseEntity<String> handleUploadConflict(UploadConflictException e) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+  }
+}
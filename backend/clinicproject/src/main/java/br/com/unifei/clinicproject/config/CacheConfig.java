@@ -0,0 +1,19 @@
+package br.com.unifei.clinicproject.config;
+
+import br.com.unifei.clinicproject.cache.CacheProperties;
+import br.com.unifei.clinicproject.cache.ResponseCacheManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+  @Bean
+  public ResponseCacheManager cacheManager(CacheProperties properties) {
+    return new ResponseCacheManager(properties);
+  }
+}
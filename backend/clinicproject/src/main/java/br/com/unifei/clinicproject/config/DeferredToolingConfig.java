@@ -0,0 +1,57 @@
+package br.com.unifei.clinicproject.config;
+
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Com {@code startup.defer-tooling=true}, os beans do springdoc que geram o OpenAPI e os do console
+ * do H2 passam a ser lazy: a varredura dos controllers e a conexão que o console abre para logar a
+ * URL ficam para o primeiro acesso a {@code /v3/api-docs} ou {@code /h2-console}. A configuração
+ * base do springdoc fica de fora: o Swagger UI depende dela para registrar os recursos estáticos.
+ *
+ * <p>Com AOT a condição é avaliada no build, como os profiles (ver build.gradle).
+ */
+@Log4j2
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "startup.defer-tooling", havingValue = "true")
+public class DeferredToolingConfig {
+
+  private static final List<String> DEFERRED_PREFIXES =
+      List.of(
+          "org.springdoc.webmvc.core.",
+          "org.springdoc.webmvc.api.",
+          "org.springframework.boot.autoconfigure.h2.H2Console");
+
+  @Bean
+  public static BeanFactoryPostProcessor deferToolingBeans() {
+    return beanFactory -> {
+      int deferred = 0;
+      for (String name : beanFactory.getBeanDefinitionNames()) {
+        BeanDefinition definition = beanFactory.getBeanDefinition(name);
+        String source = sourceClass(beanFactory, definition);
+
+        if (source != null && DEFERRED_PREFIXES.stream().anyMatch(source::startsWith)) {
+          definition.setLazyInit(true);
+          deferred++;
+        }
+      }
+      log.info("Deferred {} springdoc/H2 console beans to first use", deferred);
+    };
+  }
+
+  // Beans de métodos @Bean não têm classe própria na definição: vale a classe de configuração
+  private static String sourceClass(
+      ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+    String factory = definition.getFactoryBeanName();
+    if (factory != null && beanFactory.containsBeanDefinition(factory)) {
+      return beanFactory.getBeanDefinition(factory).getBeanClassName();
+    }
+    return definition.getBeanClassName();
+  }
+}
@@ -0,0 +1,39 @@
+package br.com.unifei.clinicproject.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informa na inicialização se as requisições rodam em threads virtuais. O Spring Boot ignora
+ * {@code spring.threads.virtual.enabled} em JDKs anteriores ao 21 sem avisar.
+ */
+@Log4j2
+@Component
+public class ExecutionModeReporter {
+
+  private final boolean virtualThreadsRequested;
+
+  public ExecutionModeReporter(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+    this.virtualThreadsRequested = virtualThreadsRequested;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void report() {
+    boolean supported = JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    if (virtualThreadsRequested && !supported) {
+      log.warn(
+          "Virtual threads requested but running on Java {}; using platform thread pools",
+          JavaVersion.getJavaVersion());
+    } else {
+      log.info(
+          "Request execution: {} threads (Java {})",
+          virtualThreadsRequested ? "virtual" : "platform",
+          JavaVersion.getJavaVersion());
+    }
+  }
+}
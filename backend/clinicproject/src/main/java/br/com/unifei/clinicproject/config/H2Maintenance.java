@@ -0,0 +1,100 @@
+package br.com.unifei.clinicproject.config;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code CHECKPOINT} periódico do banco em arquivo: leva para o disco o que ainda está no
+ * intervalo do WRITE_DELAY e limita o trabalho de recuperação depois de uma queda. A compactação
+ * incremental fica com o próprio MVStore (AUTO_COMPACT_FILL_RATE) e a completa acontece no
+ * fechamento (MAX_COMPACT_TIME), ambas configuradas na URL do perfil {@code persistent}.
+ */
+@Log4j2
+@Component
+@Profile("persistent")
+public class H2Maintenance {
+
+  private static final String FILE_URL_PREFIX = "jdbc:h2:file:";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration checkpointInterval;
+  private final Path database;
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "h2-maintenance");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public H2Maintenance(
+      JdbcTemplate jdbcTemplate,
+      @Value("${spring.datasource.url}") String url,
+      @Value("${h2.maintenance.checkpoint-interval:5m}") Duration checkpointInterval) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.checkpointInterval = checkpointInterval;
+    this.database = databaseFile(url);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    long interval = checkpointInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public void checkpoint() {
+    try {
+      long start = System.nanoTime();
+      jdbcTemplate.execute("CHECKPOINT");
+
+      log.info(
+          "H2 checkpoint in {} ms, database file {} KB",
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+          fileSizeKb());
+    } catch (RuntimeException e) {
+      // Uma exceção aqui cancelaria o agendamento
+      log.error("H2 checkpoint failed", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  /** Arquivo do MVStore para uma URL {@code jdbc:h2:file:}; {@code null} para outras URLs. */
+  static Path databaseFile(String url) {
+    if (url == null || !url.startsWith(FILE_URL_PREFIX)) {
+      return null;
+    }
+
+    String path = url.substring(FILE_URL_PREFIX.length());
+    int options = path.indexOf(';');
+    if (options >= 0) path = path.substring(0, options);
+
+    return Paths.get(path + ".mv.db").toAbsolutePath().normalize();
+  }
+
+  private long fileSizeKb() {
+    try {
+      return database == null ? -1 : Files.size(database) / 1024;
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package br.com.unifei.clinicproject.config;
+
+import br.com.unifei.clinicproject.cache.BoundedTtlCache;
+import br.com.unifei.clinicproject.cache.BoundedTtlCacheMetrics;
+import br.com.unifei.clinicproject.metrics.QueryCounter;
+import br.com.unifei.clinicproject.services.FileStorageService;
+import br.com.unifei.clinicproject.services.PasswordHashingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Envolve o DataSource num proxy JDBC que alimenta o QueryCounter (ver RequestQueryFilter) e
+   * os demais {@link QueryExecutionListener} registrados como bean (ex.: captura de SQL em teste).
+   */
+  @Bean
+  public static BeanPostProcessor queryCountingDataSource(
+      ObjectProvider<QueryCounter> counter, ObjectProvider<QueryExecutionListener> listeners) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+          return bean;
+        }
+
+        ProxyDataSourceBuilder builder =
+            ProxyDataSourceBuilder.create(beanName, dataSource).proxyResultSet(counter.getObject());
+        listeners.orderedStream().forEach(builder::listener);
+        return builder.build();
+      }
+    };
+  }
+
+  /** Registra cache.gets/puts/evictions/size para cada cache do ResponseCacheManager. */
+  @Bean
+  public CacheMeterBinderProvider<BoundedTtlCache> boundedTtlCacheMeterBinderProvider() {
+    return BoundedTtlCacheMetrics::new;
+  }
+
+  @Bean
+  public MeterBinder passwordHashingMetrics(PasswordHashingService service) {
+    return registry -> {
+      FunctionTimer.builder(
+              "clinic.password.hashing",
+              service,
+              s -> s.stats().hashed(),
+              s -> s.stats().averageMillis() * s.stats().hashed(),
+              TimeUnit.MILLISECONDS)
+          .description("BCrypt hashes computed by the dedicated pool")
+          .register(registry);
+
+      FunctionCounter.builder(
+              "clinic.password.hashing.rejected", service, s -> s.stats().rejected())
+          .description("Hash requests refused with 503 because the pool was saturated")
+          .register(registry);
+
+      Gauge.builder("clinic.password.hashing.active", service, s -> s.stats().active())
+          .register(registry);
+      Gauge.builder("clinic.password.hashing.queued", service, s -> s.stats().queued())
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder fileStorageMetrics(FileStorageService service) {
+    return registry -> {
+      FunctionCounter.builder(
+              "clinic.storage.promotion.failures",
+              service,
+              FileStorageService::promotionFailures)
+          .description("Staged files that could not be moved to the blob store after commit")
+          .register(registry);
+
+      Gauge.builder(
+              "clinic.storage.promotion.pending", service, FileStorageService::pendingPromotions)
+          .description("Committed attachments still waiting in staging for a retry")
+          .register(registry);
+    };
+  }
+}
@@ -0,0 +1,26 @@
+package br.com.unifei.clinicproject.controllers;
+
+import br.com.unifei.clinicproject.cache.CacheStats;
+import br.com.unifei.clinicproject.cache.ResponseCacheManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/caches")
+@RequiredArgsConstructor
+@Tag(name = "Cache Controller")
+public class CacheController {
+
+  private final ResponseCacheManager cacheManager;
+
+  @GetMapping
+  @Operation(summary = "Hit/miss/eviction statistics of the response caches")
+  public List<CacheStats> stats() {
+    return cacheManager.stats();
+  }
+}
@@ -0,0 +1,77 @@
+package br.com.unifei.clinicproject.controllers;
+
+import br.com.unifei.clinicproject.dtos.request.UploadSessionRequest;
+import br.com.unifei.clinicproject.dtos.response.UploadSessionResponse;
+import br.com.unifei.clinicproject.services.ChunkedUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/medical-records/uploads")
+@RequiredArgsConstructor
+@Tag(name = "Chunked Upload Controller")
+public class ChunkedUploadController {
+
+  private final ChunkedUploadService chunkedUploadService;
+
+  @PostMapping
+  @Operation(summary = "Start a resumable upload session for a large attachment")
+  public ResponseEntity<UploadSessionResponse> createSession(
+      @RequestBody @Valid UploadSessionRequest request) {
+
+    return new ResponseEntity<>(chunkedUploadService.createSession(request), HttpStatus.CREATED);
+  }
+
+  @GetMapping("/{sessionId}")
+  @Operation(summary = "Show which chunks are still missing")
+  public ResponseEntity<UploadSessionResponse> getSession(@PathVariable String sessionId) {
+    return ResponseEntity.ok(chunkedUploadService.getSession(sessionId));
+  }
+
+  @PutMapping(
+      value = "/{sessionId}/chunks/{index}",
+      consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<UploadSessionResponse> uploadChunk(
+      @PathVariable String sessionId,
+      @PathVariable int index,
+      @Parameter(description = "Posição do chunk no arquivo (opcional, validada se enviada)")
+          @RequestParam(required = false)
+          Long offset,
+      HttpServletRequest request)
+      throws IOException {
+
+    // O corpo é lido direto do stream da requisição, sem ser bufferizado pelo Spring
+    UploadSessionResponse session =
+        chunkedUploadService.writeChunk(sessionId, index, offset, request.getInputStream());
+
+    return ResponseEntity.ok(session);
+  }
+
+  @PostMapping("/{sessionId}/complete")
+  @Operation(summary = "Finish the upload and attach the file to a medical record")
+  public ResponseEntity<?> complete(
+      @PathVariable String sessionId,
+      @RequestParam String recordId,
+      @RequestHeader(value = "veterinarianId", required = false) String veterinarianId) {
+
+    chunkedUploadService.complete(sessionId, recordId, veterinarianId);
+
+    return ResponseEntity.ok("Attachment uploaded successfully!");
+  }
+
+  @DeleteMapping("/{sessionId}")
+  public ResponseEntity<Void> cancel(@PathVariable String sessionId) {
+
+    chunkedUploadService.cancel(sessionId);
+    return ResponseEntity.noContent().build();
+  }
+}
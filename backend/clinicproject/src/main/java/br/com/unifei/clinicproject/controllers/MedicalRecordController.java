@@ -1,34 +1,44 @@
 package br.com.unifei.clinicproject.controllers;
 
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
 import br.com.unifei.clinicproject.dtos.request.MedicalRecordRequest;
 import br.com.unifei.clinicproject.dtos.request.MedicalRecordUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.AttachmentResponse;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
+import br.com.unifei.clinicproject.metrics.TransferMetrics;
+import br.com.unifei.clinicproject.search.MedicalRecordIndex;
+import br.com.unifei.clinicproject.services.AttachmentArchiveService;
+import br.com.unifei.clinicproject.services.AttachmentDownloadService;
+import br.com.unifei.clinicproject.services.MedicalRecordExportService;
 import br.com.unifei.clinicproject.services.MedicalRecordService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/medical-records")
@@ -37,6 +47,10 @@ import org.springframework.web.multipart.MultipartFile;
 public class MedicalRecordController {
 
   private final MedicalRecordService medicalRecordService;
+  private final AttachmentArchiveService attachmentArchiveService;
+  private final AttachmentDownloadService attachmentDownloadService;
+  private final MedicalRecordExportService exportService;
+  private final TransferMetrics transferMetrics;
 
   @ApiResponses(
       value = {@ApiResponse(responseCode = "200", description = "Medical record created")})
@@ -64,18 +78,72 @@ public class MedicalRecordController {
   }
 
   @GetMapping("/search")
-  public ResponseEntity<List<MedicalRecordResponse>> searchRecords(
+  public ResponseEntity<CursorPageResponse<MedicalRecordResponse>> searchRecords(
       @RequestParam String petId,
       @RequestParam(required = false) LocalDate startDate,
       @RequestParam(required = false) LocalDate endDate,
       @RequestParam(required = false) String veterinarianId,
-      @RequestParam(required = false) String diagnosisKeyword) {
+      @RequestParam(required = false) String diagnosisKeyword,
+      @Parameter(description = "Cursor retornado em `next` pela página anterior")
+          @RequestParam(required = false)
+          String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest request) {
+
+    if (request.checkNotModified(medicalRecordService.listingVersion())) {
+      return null;
+    }
 
-    List<MedicalRecordResponse> result =
-        medicalRecordService.search(petId, startDate, endDate, veterinarianId, diagnosisKeyword);
+    CursorPageResponse<MedicalRecordResponse> result =
+        medicalRecordService.search(
+            petId, startDate, endDate, veterinarianId, diagnosisKeyword, cursor, size);
     return ResponseEntity.ok(result);
   }
 
+  @GetMapping("/full-text")
+  @Operation(summary = "Ranked full-text search over diagnosis, prescription and notes")
+  public ResponseEntity<List<MedicalRecordResponse>> fullTextSearch(
+      @RequestParam String q,
+      @Parameter(schema = @Schema(allowableValues = {"AND", "OR"}))
+          @RequestParam(defaultValue = "AND")
+          MedicalRecordIndex.Operator operator,
+      @Parameter(description = "Restringe a busca a um pet (opcional)")
+          @RequestParam(required = false)
+          String petId,
+      @RequestParam(defaultValue = "50") int limit) {
+
+    return ResponseEntity.ok(medicalRecordService.fullTextSearch(q, operator, petId, limit));
+  }
+
+  @GetMapping("/export")
+  @Operation(summary = "Streams medical records as NDJSON or CSV")
+  public ResponseEntity<StreamingResponseBody> exportRecords(
+      @RequestParam(required = false) LocalDate startDate,
+      @RequestParam(required = false) LocalDate endDate,
+      @RequestParam(required = false) String veterinarianId,
+      @RequestParam(defaultValue = "NDJSON") MedicalRecordExportService.Format format) {
+
+    StreamingResponseBody body =
+        out ->
+            exportService.export(
+                startDate,
+                endDate,
+                veterinarianId,
+                format,
+                transferMetrics.download(TransferMetrics.Kind.EXPORT, out));
+
+    boolean csv = format == MedicalRecordExportService.Format.CSV;
+    return ResponseEntity.ok()
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"medical-records." + (csv ? "csv" : "ndjson") + "\"")
+        .contentType(
+            csv
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+        .body(body);
+  }
+
   @PatchMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   public ResponseEntity<?> updateRecord(
       @PathVariable String id,
@@ -97,40 +165,65 @@ public class MedicalRecordController {
   }
 
   @GetMapping("/attachments/{id}")
-  public ResponseEntity<Resource> getRecordAttachmentsAsZip(@PathVariable String id)
-      throws IOException {
+  public ResponseEntity<StreamingResponseBody> getRecordAttachmentsAsZip(@PathVariable String id) {
 
     MedicalRecordResponse record = medicalRecordService.findById(id);
 
-    if (record.getAttachmentPaths() == null || record.getAttachmentPaths().isEmpty()) {
+    if (record.getAttachments() == null || record.getAttachments().isEmpty()) {
       return ResponseEntity.noContent().build();
     }
 
-    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-    ZipOutputStream zipStream = new ZipOutputStream(byteStream);
-
-    for (String path : record.getAttachmentPaths()) {
-
-      Path fullPath = Paths.get(path);
-      if (!Files.exists(fullPath)) continue;
-
-      String filename = fullPath.getFileName().toString();
-
-      zipStream.putNextEntry(new ZipEntry(filename));
-      Files.copy(fullPath, zipStream);
-      zipStream.closeEntry();
-    }
-
-    zipStream.finish();
-    zipStream.close();
+    List<AttachmentResponse> attachments = record.getAttachments();
 
-    ByteArrayResource zipResource = new ByteArrayResource(byteStream.toByteArray());
+    // Sem Content-Length: o ZIP é gerado enquanto é enviado (chunked transfer)
+    StreamingResponseBody body =
+        out ->
+            attachmentArchiveService.writeZip(
+                attachments, transferMetrics.download(TransferMetrics.Kind.ZIP, out));
 
     return ResponseEntity.ok()
         .header(
             HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attachments_" + id + ".zip\"")
         .contentType(MediaType.APPLICATION_OCTET_STREAM)
-        .contentLength(zipResource.contentLength())
-        .body(zipResource);
+        .body(body);
+  }
+
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Whole file"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range"),
+        @ApiResponse(responseCode = "304", description = "Not modified"),
+        @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+      })
+  @GetMapping("/attachments/file/{attachmentId}")
+  public void downloadAttachment(
+      @PathVariable String attachmentId, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+
+    AttachmentView attachment = medicalRecordService.findAttachment(attachmentId);
+
+    attachmentDownloadService.serve(attachment, request, response);
+  }
+
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Thumbnail"),
+        @ApiResponse(responseCode = "404", description = "Not an image or not generated yet")
+      })
+  @GetMapping("/attachments/{attachmentId}/thumbnail")
+  public ResponseEntity<Resource> getAttachmentThumbnail(@PathVariable String attachmentId) {
+
+    // O blob é imutável (endereçado pelo hash), então a miniatura também é
+    CacheControl immutable = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    return medicalRecordService
+        .findThumbnail(attachmentId)
+        .<ResponseEntity<Resource>>map(
+            path ->
+                ResponseEntity.ok()
+                    .cacheControl(immutable)
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .body(new FileSystemResource(path)))
+        .orElseGet(() -> ResponseEntity.notFound().build());
   }
 }
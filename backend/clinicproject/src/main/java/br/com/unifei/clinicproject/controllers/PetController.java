@@ -2,17 +2,23 @@ package br.com.unifei.clinicproject.controllers;
 
 import br.com.unifei.clinicproject.dtos.request.PetCreateRequest;
 import br.com.unifei.clinicproject.dtos.request.PetUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
+import br.com.unifei.clinicproject.dtos.response.ImportReportResponse;
 import br.com.unifei.clinicproject.dtos.response.PetResponse;
+import br.com.unifei.clinicproject.imports.ImportFormat;
+import br.com.unifei.clinicproject.services.BulkImportService;
 import br.com.unifei.clinicproject.services.PetService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.List;
+import java.io.InputStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class PetController {
 
   private final PetService petService;
+  private final BulkImportService bulkImportService;
 
   @PostMapping("/{tutorId}")
   @Operation(summary = "Register a new pet")
@@ -31,8 +38,20 @@ public class PetController {
     return new ResponseEntity<>("Pet registered successfully!", HttpStatus.CREATED);
   }
 
+  @PostMapping(
+      value = "/import",
+      consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+  @Operation(summary = "Bulk import pets from CSV or NDJSON (tutor referenced by tutorCpf)")
+  public ResponseEntity<ImportReportResponse> importPets(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+
+    ImportReportResponse report =
+        bulkImportService.importPets(body, ImportFormat.fromContentType(contentType));
+    return ResponseEntity.ok(report);
+  }
+
   @GetMapping
-  public ResponseEntity<List<PetResponse>> searchPets(
+  public ResponseEntity<CursorPageResponse<PetResponse>> searchPets(
       @RequestParam(required = false) String name,
       @RequestParam(required = false) String species,
       @RequestParam(required = false) String breed,
@@ -40,10 +59,26 @@ public class PetController {
       @RequestParam(required = false) String ownerCpf,
       @Parameter(name = "orderBy", schema = @Schema(allowableValues = {"name", "owner"}))
           @RequestParam(required = false, defaultValue = "name")
-          String sortBy) {
+          String sortBy,
+      @Parameter(
+          description =
+              "Tolera erros de digitação em name, breed e ownerName; enquanto o índice de busca"
+                  + " carrega, vale só a busca por trecho (sem acentos)")
+          @RequestParam(defaultValue = "false")
+          boolean fuzzy,
+      @Parameter(description = "Cursor retornado em `next` pela página anterior")
+          @RequestParam(required = false)
+          String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest request) {
 
-    List<PetResponse> result =
-        petService.findPets(name, species, breed, ownerName, ownerCpf, sortBy);
+    if (request.checkNotModified(petService.listingVersion())) {
+      return null;
+    }
+
+    CursorPageResponse<PetResponse> result =
+        petService.findPets(
+            name, species, breed, ownerName, ownerCpf, sortBy, fuzzy, cursor, size);
     return ResponseEntity.ok(result);
   }
 
@@ -63,8 +98,13 @@ public class PetController {
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<PetResponse> getPetById(@PathVariable String id) {
+  public ResponseEntity<PetResponse> getPetById(@PathVariable String id, WebRequest request) {
     PetResponse user = petService.findById(id);
+
+    // Com o DTO vindo do cache, o 304 sai sem consulta, mapeamento nem serialização
+    if (request.checkNotModified(user.getVersion())) {
+      return null;
+    }
     return ResponseEntity.ok(user);
   }
 }
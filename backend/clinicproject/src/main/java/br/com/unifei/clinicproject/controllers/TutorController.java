@@ -3,18 +3,25 @@ package br.com.unifei.clinicproject.controllers;
 import br.com.unifei.clinicproject.dtos.request.TutorFilterRequest;
 import br.com.unifei.clinicproject.dtos.request.TutorRequest;
 import br.com.unifei.clinicproject.dtos.request.TutorUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
+import br.com.unifei.clinicproject.dtos.response.ImportReportResponse;
 import br.com.unifei.clinicproject.dtos.response.TutorResponse;
 import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.imports.ImportFormat;
+import br.com.unifei.clinicproject.services.BulkImportService;
 import br.com.unifei.clinicproject.services.TutorService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.InputStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -24,6 +31,8 @@ public class TutorController {
 
   private final TutorService tutorService;
 
+  private final BulkImportService bulkImportService;
+
   @PostMapping
   public ResponseEntity<?> registerTutor(@RequestBody @Valid TutorRequest request) {
 
@@ -32,22 +41,49 @@ public class TutorController {
     return new ResponseEntity<>("User registered successfully!", HttpStatus.CREATED);
   }
 
+  @PostMapping(
+      value = "/import",
+      consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+  @Operation(summary = "Bulk import tutors from CSV or NDJSON")
+  public ResponseEntity<ImportReportResponse> importTutors(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+
+    ImportReportResponse report =
+        bulkImportService.importTutors(body, ImportFormat.fromContentType(contentType));
+    return ResponseEntity.ok(report);
+  }
+
   @GetMapping("/search")
-  public List<TutorResponse> searchTutors(
+  public CursorPageResponse<TutorResponse> searchTutors(
       @RequestParam(required = false) String name,
       @RequestParam(required = false) String cpf,
       @RequestParam(required = false) String email,
       @RequestParam(required = false) String phone,
       @Parameter(name = "orderBy", schema = @Schema(allowableValues = {"name"}))
           @RequestParam(defaultValue = "name")
-          String orderBy) {
+          String orderBy,
+      @Parameter(
+          description =
+              "Tolera erros de digitação no nome; enquanto o índice de busca carrega, vale só a"
+                  + " busca por trecho (sem acentos)")
+          @RequestParam(defaultValue = "false")
+          boolean fuzzy,
+      @Parameter(description = "Cursor retornado em `next` pela página anterior")
+          @RequestParam(required = false)
+          String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest request) {
+    if (request.checkNotModified(tutorService.listingVersion())) {
+      return null;
+    }
+
     var filter = new TutorFilterRequest();
     filter.setName(name);
     filter.setCpf(cpf);
     filter.setEmail(email);
     filter.setPhone(phone);
 
-    return tutorService.findByFilters(filter, orderBy);
+    return tutorService.findByFilters(filter, orderBy, fuzzy, cursor, size);
   }
 
   @PutMapping("/{id}")
@@ -67,8 +103,12 @@ public class TutorController {
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<TutorResponse> getUserById(@PathVariable String id) {
+  public ResponseEntity<TutorResponse> getUserById(@PathVariable String id, WebRequest request) {
     TutorResponse user = tutorService.findById(id);
+
+    if (request.checkNotModified(user.getVersion())) {
+      return null;
+    }
     return ResponseEntity.ok(user);
   }
 }
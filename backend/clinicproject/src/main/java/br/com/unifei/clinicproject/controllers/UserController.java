@@ -3,6 +3,7 @@ package br.com.unifei.clinicproject.controllers;
 import br.com.unifei.clinicproject.dtos.request.UserFilterRequest;
 import br.com.unifei.clinicproject.dtos.request.UserRequest;
 import br.com.unifei.clinicproject.dtos.request.UserUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.UserResponse;
 import br.com.unifei.clinicproject.entities.UserEntity;
 import br.com.unifei.clinicproject.enums.UserRole;
@@ -12,11 +13,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -35,7 +36,7 @@ public class UserController {
   }
 
   @GetMapping("/search")
-  public List<UserResponse> searchUsers(
+  public CursorPageResponse<UserResponse> searchUsers(
       @RequestParam(required = false) String name,
       @RequestParam(required = false) String cpf,
       @Parameter(
@@ -47,7 +48,16 @@ public class UserController {
       @RequestParam(required = false) String admissionEnd,
       @Parameter(name = "orderBy", schema = @Schema(allowableValues = {"date", "name"}))
           @RequestParam(defaultValue = "name")
-          String orderBy) {
+          String orderBy,
+      @Parameter(description = "Cursor retornado em `next` pela página anterior")
+          @RequestParam(required = false)
+          String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest request) {
+    if (request.checkNotModified(userService.listingVersion())) {
+      return null;
+    }
+
     UserFilterRequest filter = new UserFilterRequest();
     filter.setName(name);
     filter.setCpf(cpf);
@@ -56,7 +66,7 @@ public class UserController {
     if (admissionStart != null) filter.setAdmissionStart(LocalDate.parse(admissionStart));
     if (admissionEnd != null) filter.setAdmissionEnd(LocalDate.parse(admissionEnd));
 
-    return userService.findByFilters(filter, orderBy);
+    return userService.findByFilters(filter, orderBy, cursor, size);
   }
 
   @PutMapping("/{id}")
@@ -76,8 +86,12 @@ public class UserController {
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<UserResponse> getUserById(@PathVariable String id) {
+  public ResponseEntity<UserResponse> getUserById(@PathVariable String id, WebRequest request) {
     UserResponse user = userService.findById(id);
+
+    if (request.checkNotModified(user.getVersion())) {
+      return null;
+    }
     return ResponseEntity.ok(user);
   }
 }
@@ -0,0 +1,9 @@
+package br.com.unifei.clinicproject.dtos.projection;
+
+public record AttachmentView(
+    String medicalRecordId,
+    String id,
+    String fileName,
+    String filePath,
+    String contentHash,
+    Long fileSize) {}
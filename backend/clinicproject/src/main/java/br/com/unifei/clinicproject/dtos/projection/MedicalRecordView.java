@@ -0,0 +1,15 @@
+package br.com.unifei.clinicproject.dtos.projection;
+
+import java.time.LocalDate;
+
+/** Colunas de {@code MedicalRecordResponse}; os anexos vêm numa segunda consulta por página. */
+public record MedicalRecordView(
+    String id,
+    LocalDate consultationDate,
+    String veterinarianId,
+    String veterinarianName,
+    String diagnosis,
+    String prescription,
+    String notes,
+    String tutorId,
+    String petId) {}
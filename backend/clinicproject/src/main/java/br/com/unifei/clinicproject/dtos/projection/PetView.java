@@ -0,0 +1,19 @@
+package br.com.unifei.clinicproject.dtos.projection;
+
+import java.time.LocalDate;
+
+/** Colunas de {@code PetResponse} lidas direto da consulta, sem hidratar a entidade. */
+public record PetView(
+    String id,
+    String name,
+    String species,
+    String breed,
+    LocalDate birthDate,
+    String tutorName,
+    String tutorCpf,
+    Double weight,
+    String notes,
+    String sex,
+    String color,
+    Long version,
+    Long tutorVersion) {}
@@ -0,0 +1,17 @@
+package br.com.unifei.clinicproject.dtos.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Colunas de {@code TutorResponse} (nunca a senha). {@code createdDate} entra só como chave do
+ * cursor da listagem.
+ */
+public record TutorView(
+    String id,
+    String name,
+    String cpf,
+    String email,
+    String phone,
+    String address,
+    OffsetDateTime createdDate,
+    Long version) {}
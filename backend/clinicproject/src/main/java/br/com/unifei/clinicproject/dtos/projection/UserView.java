@@ -0,0 +1,16 @@
+package br.com.unifei.clinicproject.dtos.projection;
+
+import br.com.unifei.clinicproject.enums.UserRole;
+import java.time.LocalDate;
+
+/** Colunas de {@code UserResponse} (nunca a senha). */
+public record UserView(
+    String id,
+    String name,
+    String cpf,
+    String email,
+    UserRole role,
+    LocalDate admissionDate,
+    String phone,
+    String username,
+    Long version) {}
@@ -0,0 +1,18 @@
+package br.com.unifei.clinicproject.dtos.request;
+
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+/** Linha da importação em lote de pets; o tutor é identificado pelo CPF. */
+public record PetImportRequest(
+    @Pattern(regexp = "\\d{11}", message = "CPF do tutor deve conter 11 dígitos numéricos")
+        @NotNull(message = "CPF do tutor é obrigatório")
+        String tutorCpf,
+    @NotBlank(message = "Nome é obrigatório") @Size(max = 100) String name,
+    @NotBlank(message = "Espécie é obrigatória") @Size(max = 50) String species,
+    @NotBlank(message = "Raça é obrigatória") @Size(max = 100) String breed,
+    @NotBlank(message = "Sexo é obrigatório") @Size(max = 15) String sex,
+    @NotNull(message = "Data de nascimento é obrigatória") @PastOrPresent LocalDate birthDate,
+    @NotBlank(message = "Cor é obrigatória") @Size(max = 50) String color,
+    @NotNull(message = "Peso é obrigatório") @Positive Double weight,
+    @Size(max = 500) String notes) {}
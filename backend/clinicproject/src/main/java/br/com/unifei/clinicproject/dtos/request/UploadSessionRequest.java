@@ -0,0 +1,14 @@
+package br.com.unifei.clinicproject.dtos.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+
+  @NotBlank private String fileName;
+
+  @NotNull @Positive private Long totalSize;
+}
@@ -0,0 +1,13 @@
+package br.com.unifei.clinicproject.dtos.response;
+
+import lombok.Data;
+
+@Data
+public class AttachmentResponse {
+
+  private String id;
+  private String fileName;
+  private String filePath;
+  private String contentHash;
+  private Long fileSize;
+}
@@ -0,0 +1,20 @@
+package br.com.unifei.clinicproject.dtos.response;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+  private List<T> items;
+
+  // Cursor opaco para a próxima página (null quando não há mais resultados)
+  private String next;
+
+  public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPageResponse<>(items.stream().<R>map(mapper).toList(), next);
+  }
+}
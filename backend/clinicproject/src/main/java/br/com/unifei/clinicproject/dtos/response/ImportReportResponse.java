@@ -0,0 +1,19 @@
+package br.com.unifei.clinicproject.dtos.response;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportReportResponse {
+  private long processed;
+  private long imported;
+  private long failed;
+  private long elapsedMillis;
+
+  /** Erros por linha, limitados a {@code import.max-reported-errors}. */
+  private List<RowError> errors;
+
+  public record RowError(long line, String message) {}
+}
@@ -0,0 +1,16 @@
+package br.com.unifei.clinicproject.dtos.response;
+
+import java.time.LocalDate;
+
+/** Linha da exportação de prontuários (NDJSON/CSV); campos na ordem das colunas do CSV. */
+public record MedicalRecordExportRow(
+    String id,
+    LocalDate consultationDate,
+    String petId,
+    String petName,
+    String tutorId,
+    String veterinarianId,
+    String veterinarianName,
+    String diagnosis,
+    String prescription,
+    String notes) {}
@@ -19,4 +19,6 @@ public class MedicalRecordResponse {
   private String petId;
 
   private List<String> attachmentPaths;
+
+  private List<AttachmentResponse> attachments;
 }
@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.dtos.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 
@@ -21,4 +22,7 @@ public class PetResponse {
   private String sex;
   private LocalDate birthDate;
   private String color;
+
+  // Vai no cabeçalho ETag, não no corpo
+  @JsonIgnore private String version;
 }
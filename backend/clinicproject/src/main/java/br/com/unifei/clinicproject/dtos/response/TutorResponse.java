@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.dtos.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -10,4 +11,7 @@ public class TutorResponse {
   private String email;
   private String phone;
   private String address;
+
+  // Vai no cabeçalho ETag, não no corpo
+  @JsonIgnore private String version;
 }
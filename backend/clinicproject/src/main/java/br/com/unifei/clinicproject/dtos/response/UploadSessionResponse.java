@@ -0,0 +1,17 @@
+package br.com.unifei.clinicproject.dtos.response;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class UploadSessionResponse {
+  private String id;
+  private String fileName;
+  private long totalSize;
+  private int chunkSize;
+  private int totalChunks;
+  private List<Integer> missingChunks;
+  private boolean complete;
+}
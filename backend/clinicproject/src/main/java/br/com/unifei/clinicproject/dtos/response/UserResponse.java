@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.dtos.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import br.com.unifei.clinicproject.enums.UserRole;
 import lombok.Data;
 
@@ -15,4 +16,7 @@ public class UserResponse {
   private LocalDate admissionDate;
   private String phone;
   private String username;
+
+  // Vai no cabeçalho ETag, não no corpo
+  @JsonIgnore private String version;
 }
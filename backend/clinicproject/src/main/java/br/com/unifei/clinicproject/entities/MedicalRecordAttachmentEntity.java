@@ -11,7 +11,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "MEDICAL_RECORD_ATTACHMENTS")
+@Table(
+    name = "MEDICAL_RECORD_ATTACHMENTS",
+    indexes = @Index(name = "IDX_ATTACHMENT_CONTENT_HASH", columnList = "CONTENT_HASH"))
 public class MedicalRecordAttachmentEntity {
 
   @Id
@@ -22,6 +24,17 @@ public class MedicalRecordAttachmentEntity {
 
   private String filePath;
 
+  // SHA-256 do conteúdo: anexos idênticos apontam para o mesmo arquivo no disco
+  @Column(name = "CONTENT_HASH", length = 64)
+  private String contentHash;
+
+  @Column(name = "FILE_SIZE")
+  private Long fileSize;
+
+  // Miniatura JPEG ao lado do blob; nula até o pool de miniaturas terminar (ou se não for imagem)
+  @Column(name = "THUMBNAIL_PATH")
+  private String thumbnailPath;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "MEDICAL_RECORD_ID")
   private MedicalRecordEntity medicalRecord;
@@ -13,7 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "MEDICAL_RECORDS")
+@Table(
+    name = "MEDICAL_RECORDS",
+    indexes = @Index(name = "IDX_MEDICAL_RECORD_DATE", columnList = "CONSULTATION_DATE, ID"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
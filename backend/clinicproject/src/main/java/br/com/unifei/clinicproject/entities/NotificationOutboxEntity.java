@@ -0,0 +1,58 @@
+package br.com.unifei.clinicproject.entities;
+
+import br.com.unifei.clinicproject.enums.NotificationStatus;
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "NOTIFICATION_OUTBOX",
+    indexes =
+        @Index(name = "IDX_OUTBOX_STATUS_NEXT_ATTEMPT", columnList = "STATUS, NEXT_ATTEMPT_AT"))
+public class NotificationOutboxEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "ID")
+  private String id;
+
+  // Identifica o evento de origem (ex.: user-created:<id>); a mesma chave nunca gera dois e-mails
+  @Column(name = "DEDUP_KEY", nullable = false, unique = true, length = 200)
+  private String dedupKey;
+
+  @Column(name = "RECIPIENT", nullable = false, length = 100)
+  private String recipient;
+
+  @Column(name = "SUBJECT", nullable = false, length = 200)
+  private String subject;
+
+  @Column(name = "BODY", nullable = false, length = 4000)
+  private String body;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "STATUS", nullable = false, length = 10)
+  private NotificationStatus status;
+
+  @Column(name = "ATTEMPTS", nullable = false)
+  private int attempts;
+
+  @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+  private OffsetDateTime nextAttemptAt;
+
+  @Column(name = "CREATED_AT", nullable = false)
+  private OffsetDateTime createdAt;
+
+  @Column(name = "SENT_AT")
+  private OffsetDateTime sentAt;
+
+  @Column(name = "LAST_ERROR", length = 1000)
+  private String lastError;
+}
@@ -26,9 +26,20 @@ public class PetEntity {
   @Column(name = "SPECIES", nullable = false, length = 50)
   private String species;
 
+  // Espécie em minúsculas, calculada pelo banco (V2__query_indexes.sql) para o filtro indexado
+  @Column(name = "SPECIES_KEY", length = 50, insertable = false, updatable = false)
+  private String speciesKey;
+
   @Column(name = "BREED", nullable = false, length = 100)
   private String breed;
 
+  // Nome e raça sem acentos, calculados pelo banco (V3__folded_name_keys.sql) para o LIKE
+  @Column(name = "NAME_KEY", length = 100, insertable = false, updatable = false)
+  private String nameKey;
+
+  @Column(name = "BREED_KEY", length = 100, insertable = false, updatable = false)
+  private String breedKey;
+
   @Column(name = "SEX", nullable = false, length = 15)
   private String sex;
 
@@ -51,4 +62,9 @@ public class PetEntity {
   @Builder.Default
   @Column(name = "CREATED_DATE")
   private OffsetDateTime createdDate = OffsetDateTime.now();
+
+  // Incrementada pelo Hibernate a cada alteração; vira a ETag do detalhe
+  @Version
+  @Column(name = "VERSION", nullable = false)
+  private Long version;
 }
@@ -32,6 +32,10 @@ public class TutorEntity {
   @Column(name = "NAME", nullable = false, length = 150)
   private String name;
 
+  // Nome sem acentos, calculado pelo banco (V3__folded_name_keys.sql) para o LIKE
+  @Column(name = "NAME_KEY", length = 150, insertable = false, updatable = false)
+  private String nameKey;
+
   @Column(name = "CPF", nullable = false, length = 11, unique = true)
   private String cpf;
 
@@ -60,6 +64,11 @@ public class TutorEntity {
   @Column(name = "CREATED_DATE")
   private OffsetDateTime createdDate = OffsetDateTime.now();
 
+  // Incrementada pelo Hibernate a cada alteração; vira a ETag do detalhe
+  @Version
+  @Column(name = "VERSION", nullable = false)
+  private Long version;
+
   @Builder.Default
   @Column(name = "ACTIVE", nullable = false)
   private boolean active = true;
@@ -62,6 +62,11 @@ public class UserEntity {
   @Column(name = "CREATED_DATE")
   private OffsetDateTime createdDate = OffsetDateTime.now();
 
+  // Incrementada pelo Hibernate a cada alteração; vira a ETag do detalhe
+  @Version
+  @Column(name = "VERSION", nullable = false)
+  private Long version;
+
   @Column(name = "ACTIVE", nullable = false)
   private boolean active = true;
 
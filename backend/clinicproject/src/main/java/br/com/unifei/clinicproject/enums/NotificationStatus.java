@@ -0,0 +1,7 @@
+package br.com.unifei.clinicproject.enums;
+
+public enum NotificationStatus {
+  PENDING,
+  SENT,
+  FAILED
+}
@@ -0,0 +1,9 @@
+package br.com.unifei.clinicproject.exceptions;
+
+/** Parte de upload fora do intervalo da sessão ou com tamanho diferente do esperado (400). */
+public class InvalidChunkException extends IllegalArgumentException {
+
+  public InvalidChunkException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,13 @@
+package br.com.unifei.clinicproject.exceptions;
+
+/** Cursor malformado ou tamanho de página inválido numa listagem paginada (400). */
+public class InvalidPageRequestException extends IllegalArgumentException {
+
+  public InvalidPageRequestException(String message) {
+    super(message);
+  }
+
+  public InvalidPageRequestException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,16 @@
+package br.com.unifei.clinicproject.exceptions;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/** Lançada quando um recurso limitado (ex.: pool de hashing de senha) está saturado. */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+}
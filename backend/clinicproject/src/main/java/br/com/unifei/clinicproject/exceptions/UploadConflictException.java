@@ -0,0 +1,9 @@
+package br.com.unifei.clinicproject.exceptions;
+
+/** Sessão de upload em conclusão ou ainda com partes faltando (409). */
+public class UploadConflictException extends IllegalStateException {
+
+  public UploadConflictException(String message) {
+    super(message);
+  }
+}
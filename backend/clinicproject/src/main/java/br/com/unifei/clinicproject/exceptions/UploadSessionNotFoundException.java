@@ -0,0 +1,11 @@
+package br.com.unifei.clinicproject.exceptions;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/** Sessão de upload em partes inexistente, concluída ou expirada (404). */
+public class UploadSessionNotFoundException extends EntityNotFoundException {
+
+  public UploadSessionNotFoundException(String message) {
+    super(message);
+  }
+}
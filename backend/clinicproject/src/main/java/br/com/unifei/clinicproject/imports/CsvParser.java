@@ -0,0 +1,102 @@
+package br.com.unifei.clinicproject.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) em streaming: um registro por chamada, sem carregar o arquivo em
+ * memória. Aceita campos entre aspas com vírgulas, aspas duplicadas e quebras de linha.
+ */
+final class CsvParser {
+
+  private final Reader reader;
+  private long line = 1;
+  private int pending = -2;
+
+  CsvParser(Reader reader) {
+    this.reader = reader;
+  }
+
+  /** Registro que não pôde ser lido; o leitor já consumiu o restante do arquivo. */
+  static final class MalformedRecordException extends IOException {
+
+    MalformedRecordException(String message) {
+      super(message);
+    }
+  }
+
+  /** Linha física onde começa o próximo registro. */
+  long line() {
+    return line;
+  }
+
+  /**
+   * Próximo registro, ou {@code null} no fim do arquivo.
+   *
+   * @throws MalformedRecordException se o arquivo termina com aspas abertas
+   */
+  List<String> next() throws IOException {
+    int c = read();
+    if (c == -1) {
+      return null;
+    }
+
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new MalformedRecordException("Aspas não fechadas até o fim do arquivo");
+        }
+        if (c == '"') {
+          int following = read();
+          if (following == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            c = following;
+            continue;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\r' || c == '\n' || c == -1) {
+        if (c == '\r') {
+          int following = read();
+          if (following != '\n') {
+            pending = following;
+          }
+        }
+        if (c != -1) {
+          line++;
+        }
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  private int read() throws IOException {
+    if (pending != -2) {
+      int c = pending;
+      pending = -2;
+      return c;
+    }
+    return reader.read();
+  }
+}
@@ -0,0 +1,23 @@
+package br.com.unifei.clinicproject.imports;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+  CSV,
+  NDJSON;
+
+  public static final String CSV_MEDIA_TYPE = "text/csv";
+  public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+  public static ImportFormat fromContentType(String contentType) {
+    MediaType mediaType = MediaType.parseMediaType(contentType);
+
+    if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+      return CSV;
+    }
+    if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+      return NDJSON;
+    }
+    throw new IllegalArgumentException("Formato de importação não suportado: " + contentType);
+  }
+}
@@ -0,0 +1,6 @@
+package br.com.unifei.clinicproject.imports;
+
+import java.util.Map;
+
+/** Uma linha do arquivo de importação; {@code error} preenchido quando não pôde ser lida. */
+public record ImportRow(long line, Map<String, Object> values, String error) {}
@@ -0,0 +1,122 @@
+package br.com.unifei.clinicproject.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê CSV (com cabeçalho) ou NDJSON linha a linha, devolvendo cada registro como um mapa
+ * campo → valor. Linhas malformadas viram {@link ImportRow} com erro em vez de abortar a leitura.
+ */
+public class ImportRowReader implements Closeable {
+
+  private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+  private static final char BOM = '\uFEFF';
+
+  private final BufferedReader reader;
+  private final ImportFormat format;
+  private final ObjectMapper objectMapper;
+
+  private CsvParser csv;
+  private List<String> header;
+  private long line;
+  private boolean started;
+
+  public ImportRowReader(InputStream input, ImportFormat format, ObjectMapper objectMapper) {
+    this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    this.format = format;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Próxima linha, ou {@code null} no fim do arquivo. */
+  public ImportRow next() throws IOException {
+    if (!started) {
+      skipBom();
+      started = true;
+    }
+    return format == ImportFormat.CSV ? nextCsv() : nextJson();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private ImportRow nextJson() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      line++;
+      if (text == null) {
+        return null;
+      }
+    } while (text.isBlank());
+
+    try {
+      return new ImportRow(line, objectMapper.readValue(text, MAP_TYPE), null);
+    } catch (JsonProcessingException e) {
+      return new ImportRow(line, null, "JSON inválido: " + e.getOriginalMessage());
+    }
+  }
+
+  private ImportRow nextCsv() throws IOException {
+    if (csv == null) {
+      csv = new CsvParser(reader);
+      try {
+        header = csv.next();
+      } catch (CsvParser.MalformedRecordException e) {
+        return new ImportRow(1, null, "Cabeçalho inválido: " + e.getMessage());
+      }
+      if (header == null) {
+        return null;
+      }
+      header = header.stream().map(String::trim).toList();
+    }
+
+    List<String> fields;
+    long start;
+    do {
+      start = csv.line();
+      try {
+        fields = csv.next();
+      } catch (CsvParser.MalformedRecordException e) {
+        // O resto do arquivo ficou dentro do campo: esta é a última linha
+        return new ImportRow(start, null, e.getMessage());
+      }
+      if (fields == null) {
+        return null;
+      }
+    } while (fields.size() == 1 && fields.get(0).isBlank());
+
+    if (fields.size() != header.size()) {
+      return new ImportRow(
+          start,
+          null,
+          "Esperadas " + header.size() + " colunas, encontradas " + fields.size());
+    }
+
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      String value = fields.get(i).trim();
+      values.put(header.get(i), value.isEmpty() ? null : value);
+    }
+    return new ImportRow(start, values, null);
+  }
+
+  // Arquivos salvos pelo Excel/Bloco de Notas começam com BOM, que iria para o nome da 1ª coluna
+  private void skipBom() throws IOException {
+    reader.mark(1);
+    if (reader.read() != BOM) {
+      reader.reset();
+    }
+  }
+}
@@ -1,12 +1,14 @@
 package br.com.unifei.clinicproject.mappers;
 
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
+import br.com.unifei.clinicproject.dtos.projection.MedicalRecordView;
+import br.com.unifei.clinicproject.dtos.response.AttachmentResponse;
 import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
 import br.com.unifei.clinicproject.entities.MedicalRecordAttachmentEntity;
 import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
 import java.util.List;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Mappings;
 
 @Mapper(componentModel = "spring")
 public interface MedicalMapper {
@@ -24,4 +26,18 @@ public interface MedicalMapper {
   }
 
   List<MedicalRecordResponse> toResponseDto(List<MedicalRecordEntity> medicalRecordEntity);
+
+  @Mapping(target = "attachmentPaths", ignore = true)
+  @Mapping(target = "attachments", ignore = true)
+  MedicalRecordResponse toResponseDto(MedicalRecordView view);
+
+  AttachmentResponse toAttachmentResponse(AttachmentView view);
+
+  default MedicalRecordResponse toResponseDto(
+      MedicalRecordView view, List<AttachmentView> attachments) {
+    MedicalRecordResponse response = toResponseDto(view);
+    response.setAttachments(attachments.stream().map(this::toAttachmentResponse).toList());
+    response.setAttachmentPaths(attachments.stream().map(AttachmentView::filePath).toList());
+    return response;
+  }
 }
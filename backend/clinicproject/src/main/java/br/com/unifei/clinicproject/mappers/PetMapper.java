@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.mappers;
 
+import br.com.unifei.clinicproject.dtos.projection.PetView;
 import br.com.unifei.clinicproject.dtos.response.PetResponse;
 import br.com.unifei.clinicproject.entities.PetEntity;
 import org.mapstruct.Mapper;
@@ -14,8 +15,20 @@ public interface PetMapper {
   @Mapping(target = "age", expression = "java(calculateAge(pet.getBirthDate()))")
   @Mapping(target = "tutorName", source = "pet.tutor.name")
   @Mapping(target = "tutorCpf", source = "pet.tutor.cpf")
+  @Mapping(
+      target = "version",
+      expression = "java(version(pet.getVersion(), pet.getTutor().getVersion()))")
   PetResponse toResponseDto(PetEntity pet);
 
+  @Mapping(target = "age", expression = "java(calculateAge(pet.birthDate()))")
+  @Mapping(target = "version", expression = "java(version(pet.version(), pet.tutorVersion()))")
+  PetResponse toResponseDto(PetView pet);
+
+  /** Nome e CPF do tutor estão na resposta, e a idade muda com a data: todos entram na ETag. */
+  default String version(Long petVersion, Long tutorVersion) {
+    return petVersion + "." + tutorVersion + "." + LocalDate.now().toEpochDay();
+  }
+
   default Integer calculateAge(LocalDate birthDate) {
     return (birthDate == null) ? null : Period.between(birthDate, LocalDate.now()).getYears();
   }
@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.mappers;
 
+import br.com.unifei.clinicproject.dtos.projection.TutorView;
 import br.com.unifei.clinicproject.dtos.request.TutorRequest;
 import br.com.unifei.clinicproject.dtos.request.TutorUpdateRequest;
 import br.com.unifei.clinicproject.dtos.request.UserUpdateRequest;
@@ -15,10 +16,29 @@ public interface TutorMapper {
 
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "active", ignore = true)
+  @Mapping(target = "createdDate", ignore = true)
+  @Mapping(target = "lastModifiedDate", ignore = true)
+  @Mapping(target = "lastModifiedBy", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "pets", ignore = true)
+  @Mapping(target = "nameKey", ignore = true)
   TutorEntity toEntity(TutorRequest dto);
 
   TutorResponse toResponseDTO(TutorEntity entity);
 
+  TutorResponse toResponseDTO(TutorView view);
+
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "name", ignore = true)
+  @Mapping(target = "cpf", ignore = true)
+  @Mapping(target = "birthDate", ignore = true)
+  @Mapping(target = "active", ignore = true)
+  @Mapping(target = "createdDate", ignore = true)
+  @Mapping(target = "lastModifiedDate", ignore = true)
+  @Mapping(target = "lastModifiedBy", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "pets", ignore = true)
+  @Mapping(target = "nameKey", ignore = true)
   void updateEntityFromDto(TutorUpdateRequest dto, @MappingTarget TutorEntity entity);
 }
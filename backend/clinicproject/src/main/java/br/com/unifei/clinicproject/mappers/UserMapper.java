@@ -1,5 +1,6 @@
 package br.com.unifei.clinicproject.mappers;
 
+import br.com.unifei.clinicproject.dtos.projection.UserView;
 import br.com.unifei.clinicproject.dtos.request.UserRequest;
 import br.com.unifei.clinicproject.dtos.request.UserUpdateRequest;
 import br.com.unifei.clinicproject.dtos.response.UserResponse;
@@ -13,10 +14,26 @@ public interface UserMapper {
   UserMapper INSTANCE = Mappers.getMapper(UserMapper.class);
 
   @Mapping(target = "id", ignore = true)
+  @Mapping(target = "active", ignore = true)
+  @Mapping(target = "createdDate", ignore = true)
+  @Mapping(target = "lastModifiedDate", ignore = true)
+  @Mapping(target = "lastModifiedBy", ignore = true)
+  @Mapping(target = "version", ignore = true)
   UserEntity toEntity(UserRequest dto);
 
   UserResponse toResponseDTO(UserEntity entity);
 
+  UserResponse toResponseDTO(UserView view);
+
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "name", ignore = true)
+  @Mapping(target = "cpf", ignore = true)
+  @Mapping(target = "username", ignore = true)
+  @Mapping(target = "active", ignore = true)
+  @Mapping(target = "createdDate", ignore = true)
+  @Mapping(target = "lastModifiedDate", ignore = true)
+  @Mapping(target = "lastModifiedBy", ignore = true)
+  @Mapping(target = "version", ignore = true)
   void updateEntityFromDto(UserUpdateRequest dto, @MappingTarget UserEntity entity);
 }
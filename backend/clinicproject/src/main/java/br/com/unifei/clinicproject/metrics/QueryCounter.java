@@ -0,0 +1,75 @@
+package br.com.unifei.clinicproject.metrics;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.List;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ouve o proxy JDBC do DataSource e registra cada comando e cada linha lida no {@link QueryStats}
+ * aberto na thread corrente. Sem escopo aberto (jobs, warmup), nada é acumulado.
+ */
+@Component
+public class QueryCounter implements QueryExecutionListener, ResultSetProxyLogicFactory {
+
+  private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+  // O ExecutionInfo só mede em milissegundos; comandos curtos sairiam com 0
+  private static final String STARTED_AT = QueryCounter.class.getName() + ".startedAt";
+
+  /** Abre um escopo aninhado no atual; feche com {@link #stop} na mesma thread. */
+  public QueryStats start() {
+    QueryStats stats = new QueryStats(CURRENT.get());
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  public void stop(QueryStats stats) {
+    if (stats.parent == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(stats.parent);
+    }
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    if (CURRENT.get() != null) execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    QueryStats stats = CURRENT.get();
+    Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+    if (stats == null || startedAt == null || queryInfoList.isEmpty()) return;
+
+    // Um executeBatch é uma ida ao banco, não importa quantas linhas leve
+    stats.recordStatement(queryInfoList.get(0).getQuery(), System.nanoTime() - startedAt);
+  }
+
+  @Override
+  public ResultSetProxyLogic create(
+      ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+
+    return new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig) {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result = super.invoke(proxy, method, args);
+
+        if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+          QueryStats stats = CURRENT.get();
+          if (stats != null) stats.recordRow();
+        }
+        return result;
+      }
+    };
+  }
+}
@@ -0,0 +1,78 @@
+package br.com.unifei.clinicproject.metrics;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Comandos SQL, linhas lidas e tempo de banco acumulados num escopo (uma requisição, um teste).
+ * Escopos podem ser aninhados: o que é registrado no interno também conta para os externos.
+ * Confinado à thread que o abriu.
+ */
+public final class QueryStats {
+
+  // "in (?,?,?)" e "in (?)" têm o mesmo formato; literais também não distinguem comandos
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+  final QueryStats parent;
+
+  private int statements;
+  private long rows;
+  private long nanos;
+  private final Map<String, Integer> shapes = new HashMap<>();
+
+  QueryStats(QueryStats parent) {
+    this.parent = parent;
+  }
+
+  void recordStatement(String sql, long elapsedNanos) {
+    String shape = shape(sql);
+    for (QueryStats scope = this; scope != null; scope = scope.parent) {
+      scope.statements++;
+      scope.nanos += elapsedNanos;
+      scope.shapes.merge(shape, 1, Integer::sum);
+    }
+  }
+
+  void recordRow() {
+    for (QueryStats scope = this; scope != null; scope = scope.parent) {
+      scope.rows++;
+    }
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public long rows() {
+    return rows;
+  }
+
+  public Duration time() {
+    return Duration.ofNanos(nanos);
+  }
+
+  /** Formatos de comando executados mais de {@code threshold} vezes, do mais repetido ao menos. */
+  public Map<String, Integer> repeatedShapes(int threshold) {
+    Map<String, Integer> repeated = new LinkedHashMap<>();
+    shapes.entrySet().stream()
+        .filter(e -> e.getValue() > threshold)
+        .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+        .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+    return repeated;
+  }
+
+  @Override
+  public String toString() {
+    return statements + " statements, " + rows + " rows, " + time().toMillis() + " ms";
+  }
+
+  static String shape(String sql) {
+    String shape = LITERAL.matcher(sql.strip()).replaceAll("?");
+    return IN_LIST.matcher(shape).replaceAll("(?)");
+  }
+}
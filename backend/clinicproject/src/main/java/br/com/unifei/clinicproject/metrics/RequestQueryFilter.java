@@ -0,0 +1,88 @@
+package br.com.unifei.clinicproject.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Mede o SQL de cada requisição (comandos, linhas lidas, tempo de banco) por método e rota, e
+ * avisa no log quando a requisição passa do limite de comandos ou repete o mesmo comando várias
+ * vezes (o padrão típico de N+1). Respostas em streaming só contam o que rodou na thread da
+ * requisição.
+ */
+@Log4j2
+@Component
+public class RequestQueryFilter extends OncePerRequestFilter {
+
+  private final QueryCounter queryCounter;
+  private final MeterRegistry registry;
+  private final int warnStatements;
+  private final int warnRepeats;
+
+  public RequestQueryFilter(
+      QueryCounter queryCounter,
+      MeterRegistry registry,
+      @Value("${metrics.queries.warn-statements:20}") int warnStatements,
+      @Value("${metrics.queries.warn-repeats:5}") int warnRepeats) {
+    this.queryCounter = queryCounter;
+    this.registry = registry;
+    this.warnStatements = warnStatements;
+    this.warnRepeats = warnRepeats;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+
+    QueryStats stats = queryCounter.start();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      queryCounter.stop(stats);
+      record(request, stats);
+    }
+  }
+
+  private void record(HttpServletRequest request, QueryStats stats) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+    Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+    DistributionSummary.builder("clinic.request.statements")
+        .tags(tags)
+        .register(registry)
+        .record(stats.statements());
+    DistributionSummary.builder("clinic.request.rows")
+        .tags(tags)
+        .register(registry)
+        .record(stats.rows());
+    Timer.builder("clinic.request.sql").tags(tags).register(registry).record(stats.time());
+
+    if (stats.statements() > warnStatements) {
+      log.warn("{} {} ran {}", request.getMethod(), request.getRequestURI(), stats);
+    }
+
+    Map<String, Integer> repeated = stats.repeatedShapes(warnRepeats);
+    repeated.forEach(
+        (shape, count) ->
+            log.warn(
+                "Possible N+1 in {} {}: {} executions of {}",
+                request.getMethod(),
+                request.getRequestURI(),
+                count,
+                shape));
+  }
+}
@@ -0,0 +1,73 @@
+package br.com.unifei.clinicproject.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/** Bytes recebidos e enviados pela API ({@code clinic.transfer.bytes}), por tipo. */
+@Component
+public class TransferMetrics {
+
+  public enum Kind {
+    ATTACHMENT("upload"),
+    CHUNK("upload"),
+    ZIP("download"),
+    EXPORT("download"),
+    FILE("download");
+
+    private final String direction;
+
+    Kind(String direction) {
+      this.direction = direction;
+    }
+  }
+
+  private final Map<Kind, Counter> counters = new EnumMap<>(Kind.class);
+
+  public TransferMetrics(MeterRegistry registry) {
+    for (Kind kind : Kind.values()) {
+      counters.put(
+          kind,
+          Counter.builder("clinic.transfer.bytes")
+              .baseUnit("bytes")
+              .tag("direction", kind.direction)
+              .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+              .register(registry));
+    }
+  }
+
+  public void uploaded(Kind kind, long bytes) {
+    counters.get(kind).increment(bytes);
+  }
+
+  /** Downloads que não passam por um stream da aplicação (ex.: sendfile). */
+  public void downloaded(Kind kind, long bytes) {
+    counters.get(kind).increment(bytes);
+  }
+
+  /** Envolve o stream da resposta contando o que é efetivamente escrito nele. */
+  public OutputStream download(Kind kind, OutputStream out) {
+    Counter counter = counters.get(kind);
+
+    return new FilterOutputStream(out) {
+      @Override
+      public void write(int b) throws IOException {
+        out.write(b);
+        counter.increment();
+      }
+
+      // FilterOutputStream escreveria byte a byte
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        counter.increment(len);
+      }
+    };
+  }
+}
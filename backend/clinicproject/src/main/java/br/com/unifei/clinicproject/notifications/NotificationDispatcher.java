@@ -0,0 +1,241 @@
+package br.com.unifei.clinicproject.notifications;
+
+import br.com.unifei.clinicproject.entities.NotificationOutboxEntity;
+import br.com.unifei.clinicproject.enums.NotificationStatus;
+import br.com.unifei.clinicproject.repositories.NotificationOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drena o outbox de notificações numa thread própria, em lotes: cada lote sai por uma única
+ * conexão SMTP. Falhas voltam para a fila com backoff exponencial ({@code
+ * notifications.initial-backoff} dobrando até {@code notifications.max-backoff}) e, depois de
+ * {@code notifications.max-attempts} tentativas, ficam como {@code FAILED}.
+ *
+ * <p>A entrega é "pelo menos uma vez": uma queda entre o envio e a marcação como {@code SENT}
+ * reenvia a mensagem. Só há um drenador por instância, então uma mesma linha nunca é enviada por
+ * duas threads ao mesmo tempo.
+ */
+@Log4j2
+@Component
+public class NotificationDispatcher {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final NotificationOutboxRepository repository;
+  private final JavaMailSender mailSender;
+  private final String from;
+  private final int batchSize;
+  private final Duration pollInterval;
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+
+  private final ScheduledExecutorService scheduler;
+  private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+  public NotificationDispatcher(
+      NotificationOutboxRepository repository,
+      JavaMailSender mailSender,
+      @Value("${notifications.from:no-reply@clinicproject.local}") String from,
+      @Value("${notifications.batch-size:50}") int batchSize,
+      @Value("${notifications.poll-interval:10s}") Duration pollInterval,
+      @Value("${notifications.max-attempts:8}") int maxAttempts,
+      @Value("${notifications.initial-backoff:30s}") Duration initialBackoff,
+      @Value("${notifications.max-backoff:1h}") Duration maxBackoff) {
+    this.repository = repository;
+    this.mailSender = mailSender;
+    this.from = from;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "notification-dispatcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.scheduleWithFixedDelay(
+        this::drainQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Antecipa a próxima drenagem; vários pedidos seguidos viram uma só. */
+  public void wakeUp() {
+    if (!wakeUpPending.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      scheduler.execute(
+          () -> {
+            wakeUpPending.set(false);
+            drainQuietly();
+          });
+    } catch (RejectedExecutionException e) {
+      // Desligando: o que ficou no outbox sai no próximo start
+      wakeUpPending.set(false);
+    }
+  }
+
+  /** Envia tudo o que estiver vencido; devolve quantas notificações saíram. */
+  public synchronized int drain() {
+    int sent = 0;
+    List<NotificationOutboxEntity> batch;
+
+    do {
+      batch =
+          repository.findDue(
+              NotificationStatus.PENDING, OffsetDateTime.now(), PageRequest.of(0, batchSize));
+      if (batch.isEmpty()) break;
+
+      sent += send(batch);
+    } while (batch.size() == batchSize);
+
+    return sent;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private void drainQuietly() {
+    try {
+      int sent = drain();
+      if (sent > 0) log.info("Dispatched {} notifications", sent);
+    } catch (RuntimeException e) {
+      // Uma exceção aqui cancelaria o agendamento
+      log.error("Notification dispatch failed", e);
+    }
+  }
+
+  private int send(List<NotificationOutboxEntity> batch) {
+    Map<MimeMessage, NotificationOutboxEntity> messages = new LinkedHashMap<>();
+
+    for (NotificationOutboxEntity notification : batch) {
+      try {
+        messages.put(toMessage(notification), notification);
+      } catch (MessagingException e) {
+        retryLater(notification, e);
+      }
+    }
+
+    if (messages.isEmpty()) {
+      return 0;
+    }
+
+    Map<Object, Exception> failures;
+    try {
+      mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+      failures = Map.of();
+    } catch (MailSendException e) {
+      // Mensagens que não saíram; vazio quando só o fechamento da conexão falhou
+      failures = e.getFailedMessages();
+    } catch (MailException e) {
+      // Autenticação ou configuração: nada do lote saiu
+      failures = new LinkedHashMap<>();
+      for (MimeMessage message : messages.keySet()) failures.put(message, e);
+    }
+
+    List<String> sent = new ArrayList<>();
+    for (Map.Entry<MimeMessage, NotificationOutboxEntity> entry : messages.entrySet()) {
+      Exception failure = failures.get(entry.getKey());
+      if (failure == null) {
+        sent.add(entry.getValue().getId());
+      } else {
+        retryLater(entry.getValue(), failure);
+      }
+    }
+
+    if (!sent.isEmpty()) {
+      repository.markSent(sent, NotificationStatus.SENT, OffsetDateTime.now());
+    }
+
+    return sent.size();
+  }
+
+  private MimeMessage toMessage(NotificationOutboxEntity notification)
+      throws MessagingException {
+    MimeMessage message = mailSender.createMimeMessage();
+
+    MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+    helper.setFrom(from);
+    helper.setTo(notification.getRecipient());
+    helper.setSubject(notification.getSubject());
+    helper.setText(notification.getBody());
+
+    return message;
+  }
+
+  private void retryLater(NotificationOutboxEntity notification, Exception failure) {
+    int attempts = notification.getAttempts() + 1;
+    String error = String.valueOf(failure.getMessage());
+    if (error.length() > MAX_ERROR_LENGTH) error = error.substring(0, MAX_ERROR_LENGTH);
+
+    if (attempts >= maxAttempts) {
+      log.error(
+          "Giving up on notification {} after {} attempts: {}",
+          notification.getDedupKey(),
+          attempts,
+          error);
+      repository.markFailed(
+          notification.getId(),
+          NotificationStatus.FAILED,
+          attempts,
+          notification.getNextAttemptAt(),
+          error);
+      return;
+    }
+
+    Duration delay = backoff(attempts);
+    log.warn(
+        "Notification {} failed (attempt {}), retrying in {}: {}",
+        notification.getDedupKey(),
+        attempts,
+        delay,
+        error);
+    repository.markFailed(
+        notification.getId(),
+        NotificationStatus.PENDING,
+        attempts,
+        OffsetDateTime.now().plus(delay),
+        error);
+  }
+
+  // initial-backoff, 2x, 4x, ... limitado a max-backoff
+  Duration backoff(int attempts) {
+    Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+  }
+}
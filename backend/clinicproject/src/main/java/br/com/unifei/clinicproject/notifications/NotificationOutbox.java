@@ -0,0 +1,50 @@
+package br.com.unifei.clinicproject.notifications;
+
+import br.com.unifei.clinicproject.entities.NotificationOutboxEntity;
+import br.com.unifei.clinicproject.enums.NotificationStatus;
+import br.com.unifei.clinicproject.repositories.NotificationOutboxRepository;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import java.time.OffsetDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lado da escrita do outbox: a notificação vira uma linha na mesma transação da entidade que a
+ * originou. Se a transação desfizer, o e-mail nunca existiu; se confirmar, o {@link
+ * NotificationDispatcher} garante o envio, sem a requisição esperar pelo SMTP.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+  private final NotificationOutboxRepository repository;
+  private final NotificationDispatcher dispatcher;
+
+  /** Chaves repetidas são ignoradas: quem produz pode chamar de novo sem duplicar o e-mail. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueue(String dedupKey, String recipient, String subject, String body) {
+    if (repository.existsByDedupKey(dedupKey)) {
+      log.debug("Notification {} already queued", dedupKey);
+      return;
+    }
+
+    OffsetDateTime now = OffsetDateTime.now();
+    repository.save(
+        NotificationOutboxEntity.builder()
+            .dedupKey(dedupKey)
+            .recipient(recipient)
+            .subject(subject)
+            .body(body)
+            .status(NotificationStatus.PENDING)
+            .nextAttemptAt(now)
+            .createdAt(now)
+            .build());
+
+    // Não espera o próximo ciclo de polling
+    AfterCommit.run(dispatcher::wakeUp);
+  }
+}
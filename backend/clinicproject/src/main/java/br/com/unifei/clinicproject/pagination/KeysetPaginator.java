@@ -0,0 +1,166 @@
+package br.com.unifei.clinicproject.pagination;
+
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
+import br.com.unifei.clinicproject.exceptions.InvalidPageRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paginação por keyset: em vez de OFFSET, cada página continua a partir da última (chave de
+ * ordenação, id) vista, de modo que o custo da consulta não cresce com a profundidade.
+ */
+@Component
+public class KeysetPaginator {
+
+  private static final char SEPARATOR = '|';
+
+  private final int defaultSize;
+  private final int maxSize;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  public KeysetPaginator(
+      @Value("${pagination.default-size:20}") int defaultSize,
+      @Value("${pagination.max-size:100}") int maxSize) {
+    this.defaultSize = defaultSize;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Busca uma página já projetada em {@code R}: só as colunas da projeção saem do banco, sem
+   * entidades gerenciadas nem snapshots de dirty-checking.
+   */
+  public <E, R, K extends Comparable<? super K>> CursorPageResponse<R> fetch(
+      Class<E> entityType,
+      Specification<E> spec,
+      Projection<E, R> projection,
+      SortKey<R, K> sortKey,
+      Function<R, String> idExtractor,
+      String cursor,
+      Integer size) {
+
+    int limit = resolveSize(size);
+
+    Specification<E> pageSpec =
+        (cursor == null || cursor.isBlank()) ? spec : spec.and(after(sortKey, cursor));
+
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<R> query = cb.createQuery(projection.type());
+    Root<E> root = query.from(entityType);
+
+    query.select(
+        cb.construct(
+            projection.type(), projection.columns().apply(root).toArray(new Selection<?>[0])));
+
+    Predicate where = pageSpec.toPredicate(root, query, cb);
+    if (where != null) query.where(where);
+
+    // O id desempata registros com a mesma chave, garantindo uma ordem total e estável
+    Path<K> keyPath = resolve(root, sortKey.property());
+    query.orderBy(
+        sortKey.direction().isAscending() ? cb.asc(keyPath) : cb.desc(keyPath),
+        cb.asc(root.get("id")));
+
+    // Busca um registro a mais apenas para saber se existe próxima página
+    List<R> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+
+    if (rows.size() <= limit) {
+      return new CursorPageResponse<>(rows, null);
+    }
+
+    List<R> page = rows.subList(0, limit);
+    R last = page.get(limit - 1);
+
+    return new CursorPageResponse<>(
+        List.copyOf(page), encode(sortKey.extractor().apply(last), idExtractor.apply(last)));
+  }
+
+  /** Tamanho efetivo: padrão se nulo, 400 se menor que 1, até {@code pagination.max-size}. */
+  public int resolveSize(Integer size) {
+    if (size == null) return defaultSize;
+    if (size < 1) throw new InvalidPageRequestException("Page size must be positive");
+    return Math.min(size, maxSize);
+  }
+
+  private <E, K extends Comparable<? super K>> Specification<E> after(
+      SortKey<?, K> sortKey, String cursor) {
+
+    String decoded = decode(cursor);
+    int split = decoded.lastIndexOf(SEPARATOR);
+
+    String id = decoded.substring(split + 1);
+    K key;
+    try {
+      key = sortKey.parser().apply(decoded.substring(0, split));
+    } catch (RuntimeException e) {
+      throw new InvalidPageRequestException("Invalid cursor", e);
+    }
+
+    return (root, query, cb) -> {
+      Path<K> keyPath = resolve(root, sortKey.property());
+      Path<String> idPath = root.get("id");
+
+      Predicate beyond =
+          sortKey.direction().isAscending()
+              ? cb.greaterThan(keyPath, key)
+              : cb.lessThan(keyPath, key);
+
+      return cb.or(beyond, cb.and(cb.equal(keyPath, key), cb.greaterThan(idPath, id)));
+    };
+  }
+
+  /**
+   * Caminho para {@code property} (ex.: {@code tutor.name}) reaproveitando os joins explícitos já
+   * feitos na consulta, como os da projeção; um {@code get()} sobre a associação criaria outro.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K> Path<K> resolve(Root<?> root, String property) {
+    Path<?> path = root;
+    for (String part : property.split("\\.")) {
+      path =
+          path instanceof From<?, ?> from
+              ? from.getJoins().stream()
+                  .filter(join -> join.getAttribute().getName().equals(part))
+                  .<Path<?>>map(join -> join)
+                  .findFirst()
+                  .orElseGet(() -> from.get(part))
+              : path.get(part);
+    }
+    return (Path<K>) path;
+  }
+
+  private static String encode(Object key, String id) {
+    String raw = String.valueOf(key) + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decode(String cursor) {
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageRequestException("Invalid cursor", e);
+    }
+
+    if (decoded.lastIndexOf(SEPARATOR) < 0) {
+      throw new InvalidPageRequestException("Invalid cursor");
+    }
+    return decoded;
+  }
+}
@@ -0,0 +1,12 @@
+package br.com.unifei.clinicproject.pagination;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Projeção por construtor para a paginação: o tipo do resultado e as colunas passadas ao seu
+ * construtor, na mesma ordem dos parâmetros.
+ */
+public record Projection<E, R>(Class<R> type, Function<Root<E>, List<Selection<?>>> columns) {}
@@ -0,0 +1,14 @@
+package br.com.unifei.clinicproject.pagination;
+
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Chave de ordenação usada na paginação por cursor: o caminho da propriedade, a direção, como ler
+ * o valor da linha projetada e como reconstruí-lo a partir do cursor.
+ */
+public record SortKey<E, K extends Comparable<? super K>>(
+    String property,
+    Sort.Direction direction,
+    Function<E, K> extractor,
+    Function<String, K> parser) {}
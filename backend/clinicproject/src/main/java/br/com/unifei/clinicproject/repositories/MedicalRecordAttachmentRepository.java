@@ -0,0 +1,53 @@
+package br.com.unifei.clinicproject.repositories;
+
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
+import br.com.unifei.clinicproject.entities.MedicalRecordAttachmentEntity;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface MedicalRecordAttachmentRepository
+    extends JpaRepository<MedicalRecordAttachmentEntity, String> {
+
+  long countByContentHash(String contentHash);
+
+  // Anexos de uma página inteira de prontuários num só SELECT
+  @Query(
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.AttachmentView(
+        a.medicalRecord.id, a.id, a.fileName, a.filePath, a.contentHash, a.fileSize)
+      from MedicalRecordAttachmentEntity a
+      where a.medicalRecord.id in :recordIds
+      """)
+  List<AttachmentView> findViewsByMedicalRecordIdIn(
+      @Param("recordIds") Collection<String> recordIds);
+
+  @Query(
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.AttachmentView(
+        a.medicalRecord.id, a.id, a.fileName, a.filePath, a.contentHash, a.fileSize)
+      from MedicalRecordAttachmentEntity a
+      where a.id = :id
+      """)
+  Optional<AttachmentView> findViewById(@Param("id") String id);
+
+  // Chamado pelas threads de miniatura ou depois do commit, quando a transação antiga ainda está
+  // associada à thread: por isso sempre numa transação nova
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Modifying
+  @Query(
+      """
+      update MedicalRecordAttachmentEntity a
+      set a.thumbnailPath = :path
+      where a.contentHash = :hash and a.thumbnailPath is null
+      """)
+  int setThumbnailPath(@Param("hash") String hash, @Param("path") String path);
+}
@@ -1,11 +1,56 @@
 package br.com.unifei.clinicproject.repositories;
 
+import br.com.unifei.clinicproject.dtos.projection.MedicalRecordView;
 import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MedicalRecordRepository
     extends JpaRepository<MedicalRecordEntity, String>,
-        JpaSpecificationExecutor<MedicalRecordEntity> {}
+        JpaSpecificationExecutor<MedicalRecordEntity> {
+
+  String VIEW_SELECT =
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.MedicalRecordView(
+        r.id, r.consultationDate, v.id, v.name, r.diagnosis, r.prescription, r.notes,
+        p.tutor.id, p.id)
+      from MedicalRecordEntity r join r.pet p join r.veterinarian v
+      """;
+
+  @Query(VIEW_SELECT + "where r.id = :id")
+  Optional<MedicalRecordView> findViewById(@Param("id") String id);
+
+  @Query(VIEW_SELECT + "where r.id in :ids")
+  List<MedicalRecordView> findViewsByIdIn(@Param("ids") Collection<String> ids);
+
+  /** Só os campos do índice de busca, sem entidades nem os relacionamentos EAGER. */
+  interface IndexedFields {
+    String getId();
+
+    String getPetId();
+
+    String getDiagnosis();
+
+    String getPrescription();
+
+    String getNotes();
+  }
+
+  @Query(
+      """
+      select r.id as id, r.pet.id as petId, r.diagnosis as diagnosis,
+        r.prescription as prescription, r.notes as notes
+      from MedicalRecordEntity r
+      where r.id > :id
+      order by r.id
+      """)
+  List<IndexedFields> findIndexedFieldsByIdGreaterThan(@Param("id") String id, Limit limit);
+}
@@ -0,0 +1,63 @@
+package br.com.unifei.clinicproject.repositories;
+
+import br.com.unifei.clinicproject.entities.NotificationOutboxEntity;
+import br.com.unifei.clinicproject.enums.NotificationStatus;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface NotificationOutboxRepository
+    extends JpaRepository<NotificationOutboxEntity, String> {
+
+  boolean existsByDedupKey(String dedupKey);
+
+  // Próximo lote a enviar, na ordem em que venceram (usa IDX_OUTBOX_STATUS_NEXT_ATTEMPT)
+  @Query(
+      """
+      select n from NotificationOutboxEntity n
+      where n.status = :status and n.nextAttemptAt <= :now
+      order by n.nextAttemptAt
+      """)
+  List<NotificationOutboxEntity> findDue(
+      @Param("status") NotificationStatus status,
+      @Param("now") OffsetDateTime now,
+      Pageable pageable);
+
+  // Todas as enviadas de um lote num único UPDATE
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      update NotificationOutboxEntity n
+      set n.status = :status, n.sentAt = :sentAt, n.attempts = n.attempts + 1, n.lastError = null
+      where n.id in :ids
+      """)
+  int markSent(
+      @Param("ids") Collection<String> ids,
+      @Param("status") NotificationStatus status,
+      @Param("sentAt") OffsetDateTime sentAt);
+
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      update NotificationOutboxEntity n
+      set n.status = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt,
+        n.lastError = :lastError
+      where n.id = :id
+      """)
+  int markFailed(
+      @Param("id") String id,
+      @Param("status") NotificationStatus status,
+      @Param("attempts") int attempts,
+      @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+      @Param("lastError") String lastError);
+}
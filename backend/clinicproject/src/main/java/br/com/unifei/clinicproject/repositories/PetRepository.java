@@ -1,10 +1,38 @@
 package br.com.unifei.clinicproject.repositories;
 
+import br.com.unifei.clinicproject.dtos.projection.PetView;
 import br.com.unifei.clinicproject.entities.PetEntity;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PetRepository
-    extends JpaRepository<PetEntity, String>, JpaSpecificationExecutor<PetEntity> {}
+    extends JpaRepository<PetEntity, String>, JpaSpecificationExecutor<PetEntity> {
+
+  @Query(
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.PetView(
+        p.id, p.name, p.species, p.breed, p.birthDate, t.name, t.cpf, p.weight, p.notes, p.sex,
+        p.color, p.version, t.version)
+      from PetEntity p join p.tutor t
+      where p.id = :id
+      """)
+  Optional<PetView> findViewById(@Param("id") String id);
+
+  /** Só os campos do índice de nomes, sem entidades gerenciadas (aquecimento do índice). */
+  interface PetNames {
+    String getId();
+
+    String getName();
+
+    String getBreed();
+  }
+
+  List<PetNames> findNamesByIdGreaterThanOrderById(String id, Limit limit);
+}
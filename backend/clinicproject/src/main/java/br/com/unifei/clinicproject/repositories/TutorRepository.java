@@ -1,9 +1,15 @@
 package br.com.unifei.clinicproject.repositories;
 
+import br.com.unifei.clinicproject.dtos.projection.TutorView;
 import br.com.unifei.clinicproject.entities.TutorEntity;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,4 +21,45 @@ public interface TutorRepository
   Optional<TutorEntity> findByCpf(String cpf);
 
   boolean existsByEmailAndIdNot(String email, String id);
+
+  @Query(
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.TutorView(
+        t.id, t.name, t.cpf, t.email, t.phone, t.address, t.createdDate, t.version)
+      from TutorEntity t
+      where t.id = :id
+      """)
+  Optional<TutorView> findViewById(@Param("id") String id);
+
+  /** Só as chaves do tutor, sem entidades gerenciadas (importação e checagem de unicidade). */
+  interface TutorKeys {
+    String getId();
+
+    String getCpf();
+
+    String getEmail();
+  }
+
+  List<TutorKeys> findKeysByCpfIn(Collection<String> cpfs);
+
+  List<TutorKeys> findKeysByIdGreaterThanOrderById(String id, Limit limit);
+
+  /** Só o nome do tutor, para o aquecimento do índice de nomes. */
+  interface TutorName {
+    String getId();
+
+    String getName();
+  }
+
+  List<TutorName> findNameByIdGreaterThanOrderById(String id, Limit limit);
+
+  // UNION em vez de OR: cada lado usa o índice único (com OR o H2 varre a tabela inteira)
+  @Query(
+      """
+      select t.id as id, t.cpf as cpf, t.email as email from TutorEntity t where t.cpf in :cpfs
+      union
+      select t.id as id, t.cpf as cpf, t.email as email from TutorEntity t where t.email in :emails
+      """)
+  List<TutorKeys> findKeysByCpfInOrEmailIn(
+      @Param("cpfs") Collection<String> cpfs, @Param("emails") Collection<String> emails);
 }
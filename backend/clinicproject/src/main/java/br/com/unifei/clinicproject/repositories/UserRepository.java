@@ -1,9 +1,14 @@
 package br.com.unifei.clinicproject.repositories;
 
+import br.com.unifei.clinicproject.dtos.projection.UserView;
 import br.com.unifei.clinicproject.entities.UserEntity;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,4 +22,43 @@ public interface UserRepository
   Optional<UserEntity> findByUsername(String username);
 
   boolean existsByEmailAndIdNot(String email, String id);
+
+  /** Só as chaves únicas do usuário, sem entidades gerenciadas. */
+  interface UserKeys {
+    String getId();
+
+    String getCpf();
+
+    String getEmail();
+
+    String getUsername();
+  }
+
+  List<UserKeys> findKeysByIdGreaterThanOrderById(String id, Limit limit);
+
+  // Uma consulta para as três chaves; UNION para cada lado usar o seu índice único
+  @Query(
+      """
+      select u.id as id, u.cpf as cpf, u.email as email, u.username as username
+      from UserEntity u where u.cpf = :cpf
+      union
+      select u.id as id, u.cpf as cpf, u.email as email, u.username as username
+      from UserEntity u where u.email = :email
+      union
+      select u.id as id, u.cpf as cpf, u.email as email, u.username as username
+      from UserEntity u where u.username = :username
+      """)
+  List<UserKeys> findKeysByCpfOrEmailOrUsername(
+      @Param("cpf") String cpf,
+      @Param("email") String email,
+      @Param("username") String username);
+
+  @Query(
+      """
+      select new br.com.unifei.clinicproject.dtos.projection.UserView(
+        u.id, u.name, u.cpf, u.email, u.role, u.admissionDate, u.phone, u.username, u.version)
+      from UserEntity u
+      where u.id = :id
+      """)
+  Optional<UserView> findViewById(@Param("id") String id);
 }
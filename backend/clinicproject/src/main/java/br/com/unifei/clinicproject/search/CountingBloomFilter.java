@@ -0,0 +1,109 @@
+package br.com.unifei.clinicproject.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom com contadores de 4 bits (16 por {@code long}), o que permite remover chaves.
+ * Nunca dá falso negativo para chaves adicionadas e não removidas; um contador que satura em 15
+ * deixa de ser decrementado, trocando um falso negativo possível por um falso positivo.
+ */
+public class CountingBloomFilter {
+
+  private static final int COUNTERS_PER_WORD = 16;
+  private static final long COUNTER_MASK = 0xF;
+
+  private final AtomicLongArray words;
+  private final int counters;
+  private final int hashes;
+
+  public CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter sizing");
+    }
+
+    // m = -n·ln(p) / ln(2)², k = m/n·ln(2)
+    double ln2 = Math.log(2);
+    long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+
+    this.counters = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(64, m));
+    this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * ln2));
+    this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+  }
+
+  public void add(String key) {
+    long hash = hash(key);
+    for (int i = 0; i < hashes; i++) {
+      update(index(hash, i), 1);
+    }
+  }
+
+  public void remove(String key) {
+    if (!mightContain(key)) return;
+
+    long hash = hash(key);
+    for (int i = 0; i < hashes; i++) {
+      update(index(hash, i), -1);
+    }
+  }
+
+  public boolean mightContain(String key) {
+    long hash = hash(key);
+    for (int i = 0; i < hashes; i++) {
+      if (counter(index(hash, i)) == 0) return false;
+    }
+    return true;
+  }
+
+  /** Memória ocupada pelos contadores, em bytes. */
+  public long sizeInBytes() {
+    return (long) words.length() * Long.BYTES;
+  }
+
+  private long counter(int index) {
+    return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & COUNTER_MASK;
+  }
+
+  private void update(int index, int delta) {
+    int word = index / COUNTERS_PER_WORD;
+    int shift = shift(index);
+
+    while (true) {
+      long current = words.get(word);
+      long count = (current >>> shift) & COUNTER_MASK;
+
+      // Saturado fica saturado; zerado não desce (remoção de chave nunca adicionada)
+      if (count == COUNTER_MASK || (delta < 0 && count == 0)) return;
+
+      long updated = current + ((long) delta << shift);
+      if (words.compareAndSet(word, current, updated)) return;
+    }
+  }
+
+  private static int shift(int index) {
+    return (index % COUNTERS_PER_WORD) * 4;
+  }
+
+  // Double hashing (Kirsch–Mitzenmacher): h1 + i·h2 sobre um hash de 64 bits
+  private int index(long hash, int i) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    int combined = h1 + i * h2;
+    return (combined & Integer.MAX_VALUE) % counters;
+  }
+
+  // FNV-1a de 64 bits sobre os bytes UTF-8, com o finalizador do MurmurHash3 para espalhar bits
+  private static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,304 @@
+package br.com.unifei.clinicproject.search;
+
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.repositories.MedicalRecordRepository;
+import br.com.unifei.clinicproject.repositories.MedicalRecordRepository.IndexedFields;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice invertido em memória sobre diagnóstico, prescrição e observações dos prontuários. É
+ * carregado na subida da aplicação e atualizado a cada criação/edição, permitindo busca ranqueada
+ * (BM25) sem varrer a tabela com LIKE.
+ *
+ * <p>O rebuild monta um índice novo fora do lock e só o troca pelo atual no fim, então a busca não
+ * fica bloqueada durante a carga. Alterações confirmadas durante o rebuild vão também para o
+ * índice novo e têm precedência sobre o que a varredura leu.
+ */
+@Log4j2
+@Component
+public class MedicalRecordIndex {
+
+  public enum Field {
+    DIAGNOSIS,
+    PRESCRIPTION,
+    NOTES
+  }
+
+  public enum Operator {
+    AND,
+    OR
+  }
+
+  private static final int WARMUP_BATCH = 1000;
+
+  // Parâmetros usuais do BM25
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private static final int FIELDS = Field.values().length;
+
+  private final MedicalRecordRepository repository;
+  private final CollectionVersions collectionVersions;
+
+  // Protege as leituras e alterações de current; a troca também é feita sob o lock de escrita
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private Postings current = new Postings();
+  // false até o primeiro rebuild terminar: um índice vazio não pode responder "nenhum resultado"
+  private volatile boolean ready;
+
+  // Rebuild em andamento e ids alterados desde o início dele (protegidos por this)
+  private Postings building;
+  private final Set<String> touched = new HashSet<>();
+
+  public MedicalRecordIndex(
+      MedicalRecordRepository repository, CollectionVersions collectionVersions) {
+    this.repository = repository;
+    this.collectionVersions = collectionVersions;
+  }
+
+  private record IndexedRecord(String petId, int length, Set<String> terms) {}
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Postings fresh = new Postings();
+    synchronized (this) {
+      building = fresh;
+      touched.clear();
+    }
+
+    try {
+      String lastId = "";
+      List<IndexedFields> page;
+      do {
+        page = repository.findIndexedFieldsByIdGreaterThan(lastId, Limit.of(WARMUP_BATCH));
+        for (IndexedFields fields : page) {
+          Snapshot snapshot =
+              snapshot(
+                  fields.getId(),
+                  fields.getPetId(),
+                  fields.getDiagnosis(),
+                  fields.getPrescription(),
+                  fields.getNotes());
+          load(fresh, snapshot);
+          lastId = fields.getId();
+        }
+      } while (page.size() == WARMUP_BATCH);
+
+      synchronized (this) {
+        lock.writeLock().lock();
+        try {
+          current = fresh;
+          ready = true;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        building = null;
+      }
+
+      log.info(
+          "Medical record index built with {} records and {} terms",
+          fresh.records.size(),
+          fresh.postings.size());
+
+    } finally {
+      synchronized (this) {
+        building = null;
+        touched.clear();
+      }
+    }
+    collectionVersions.touch(MedicalRecordEntity.class);
+  }
+
+  /**
+   * Indexa o prontuário. Dentro de uma transação, a atualização só é aplicada depois do commit,
+   * para o índice nunca enxergar dados que sofreram rollback.
+   */
+  public void index(MedicalRecordEntity record) {
+    var snapshot = snapshot(record);
+    AfterCommit.run(() -> apply(snapshot));
+    // De novo depois de aplicar: a busca por palavra-chave usa o índice (ver CollectionVersions)
+    collectionVersions.touch(MedicalRecordEntity.class);
+  }
+
+  public void remove(String recordId) {
+    update(recordId, postings -> postings.remove(recordId));
+    collectionVersions.touch(MedicalRecordEntity.class);
+  }
+
+  /**
+   * Retorna os ids dos prontuários que casam com a consulta, do mais para o menos relevante.
+   *
+   * @param petId restringe a um pet; {@code null} busca na clínica inteira
+   * @param fields campos considerados; vazio considera todos
+   * @return {@code null} quando o índice não pode responder: ainda não foi carregado ou a consulta
+   *     não tem termos indexáveis (só stopwords ou letras soltas)
+   */
+  public List<String> search(
+      String query, Operator operator, String petId, Set<Field> fields, int limit) {
+
+    Set<String> terms = new HashSet<>(PortugueseAnalyzer.analyze(query));
+    // Letra solta não é palavra: na busca por keyword o LIKE responde melhor
+    terms.removeIf(term -> term.length() == 1 && Character.isLetter(term.charAt(0)));
+    if (!ready || terms.isEmpty()) return null;
+
+    boolean[] useField = new boolean[FIELDS];
+    for (Field field : Field.values()) {
+      useField[field.ordinal()] = fields == null || fields.isEmpty() || fields.contains(field);
+    }
+
+    lock.readLock().lock();
+    try {
+      Map<String, Map<String, int[]>> postings = current.postings;
+      Map<String, IndexedRecord> records = current.records;
+
+      int docCount = records.size();
+      if (docCount == 0) return List.of();
+
+      double avgLength = (double) current.totalLength / docCount;
+
+      Map<String, Double> scores = new HashMap<>();
+      Map<String, Integer> matchedTerms = new HashMap<>();
+
+      for (String term : terms) {
+        Map<String, int[]> docs = postings.getOrDefault(term, Map.of());
+        double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+
+        for (Map.Entry<String, int[]> entry : docs.entrySet()) {
+          IndexedRecord record = records.get(entry.getKey());
+          if (petId != null && !petId.equals(record.petId())) continue;
+
+          int tf = 0;
+          int[] perField = entry.getValue();
+          for (int f = 0; f < FIELDS; f++) {
+            if (useField[f]) tf += perField[f];
+          }
+          if (tf == 0) continue;
+
+          double norm = K1 * (1 - B + B * record.length() / avgLength);
+          scores.merge(entry.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+          matchedTerms.merge(entry.getKey(), 1, Integer::sum);
+        }
+      }
+
+      return scores.entrySet().stream()
+          .filter(e -> operator == Operator.OR || matchedTerms.get(e.getKey()) == terms.size())
+          .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+          .limit(limit)
+          .map(Map.Entry::getKey)
+          .toList();
+
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private record Snapshot(String id, String petId, List<List<String>> fieldTerms) {}
+
+  private static Snapshot snapshot(MedicalRecordEntity record) {
+    String petId = record.getPet() == null ? null : record.getPet().getId();
+    return snapshot(
+        record.getId(),
+        petId,
+        record.getDiagnosis(),
+        record.getPrescription(),
+        record.getNotes());
+  }
+
+  private static Snapshot snapshot(
+      String id, String petId, String diagnosis, String prescription, String notes) {
+    List<List<String>> fieldTerms = new ArrayList<>(FIELDS);
+    fieldTerms.add(PortugueseAnalyzer.analyze(diagnosis));
+    fieldTerms.add(PortugueseAnalyzer.analyze(prescription));
+    fieldTerms.add(PortugueseAnalyzer.analyze(notes));
+
+    return new Snapshot(id, petId, fieldTerms);
+  }
+
+  private void apply(Snapshot snapshot) {
+    update(
+        snapshot.id(),
+        postings -> {
+          postings.remove(snapshot.id());
+          postings.index(snapshot);
+        });
+  }
+
+  // Alteração confirmada: vale para o índice atual e para o que está sendo montado
+  private synchronized void update(String recordId, Consumer<Postings> change) {
+    lock.writeLock().lock();
+    try {
+      change.accept(current);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    if (building != null) {
+      change.accept(building);
+      touched.add(recordId);
+    }
+  }
+
+  // Linha lida pela varredura: descartada se o prontuário foi alterado depois do início do rebuild
+  private synchronized void load(Postings fresh, Snapshot snapshot) {
+    if (!touched.contains(snapshot.id())) {
+      fresh.index(snapshot);
+    }
+  }
+
+  private static final class Postings {
+
+    // termo → (id do prontuário → frequência do termo em cada campo)
+    private final Map<String, Map<String, int[]>> postings = new HashMap<>();
+    private final Map<String, IndexedRecord> records = new HashMap<>();
+    private long totalLength;
+
+    private void index(Snapshot snapshot) {
+      Set<String> distinct = new HashSet<>();
+      int length = 0;
+
+      for (int f = 0; f < FIELDS; f++) {
+        for (String term : snapshot.fieldTerms().get(f)) {
+          postings
+              .computeIfAbsent(term, t -> new HashMap<>())
+              .computeIfAbsent(snapshot.id(), id -> new int[FIELDS])[f]++;
+          distinct.add(term);
+          length++;
+        }
+      }
+
+      records.put(snapshot.id(), new IndexedRecord(snapshot.petId(), length, distinct));
+      totalLength += length;
+    }
+
+    private void remove(String recordId) {
+      IndexedRecord previous = records.remove(recordId);
+      if (previous == null) return;
+
+      totalLength -= previous.length();
+
+      for (String term : previous.terms()) {
+        Map<String, int[]> docs = postings.get(term);
+        if (docs == null) continue;
+
+        docs.remove(recordId);
+        if (docs.isEmpty()) postings.remove(term);
+      }
+    }
+  }
+}
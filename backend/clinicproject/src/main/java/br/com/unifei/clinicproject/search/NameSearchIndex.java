@@ -0,0 +1,216 @@
+package br.com.unifei.clinicproject.search;
+
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.PetRepository.PetNames;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository.TutorName;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índices de trigramas para os filtros por substring de nome/raça do pet e nome do tutor. O
+ * filtro por nome do tutor na busca de pets passa a ser resolvido por id do tutor, sem join.
+ *
+ * <p>Como o índice só muda depois do commit, cada alteração volta a mudar a ETag das listagens
+ * ({@link CollectionVersions}) depois de aplicada; sem isso uma busca entre o commit e a
+ * atualização do índice ficaria com a ETag nova e o resultado antigo.
+ *
+ * <p>O rebuild monta índices novos e só os troca pelos atuais no fim; até o primeiro terminar, as
+ * buscas caem no LIKE. Alterações confirmadas durante o rebuild vão também para os índices novos e
+ * têm precedência sobre o que a varredura leu.
+ */
+@Log4j2
+@Component
+public class NameSearchIndex {
+
+  private static final int WARMUP_BATCH = 1000;
+
+  private record Indexes(TrigramIndex petNames, TrigramIndex petBreeds, TrigramIndex tutorNames) {
+    Indexes() {
+      this(new TrigramIndex(), new TrigramIndex(), new TrigramIndex());
+    }
+  }
+
+  private final PetRepository petRepository;
+  private final TutorRepository tutorRepository;
+  private final CollectionVersions collectionVersions;
+  private final double similarityThreshold;
+  private final int maxMatches;
+
+  // null até o primeiro rebuild terminar
+  private volatile Indexes current;
+
+  // Rebuild em andamento e ids alterados desde o início dele (protegidos por this)
+  private Indexes building;
+  private final Set<String> touched = new HashSet<>();
+
+  public NameSearchIndex(
+      PetRepository petRepository,
+      TutorRepository tutorRepository,
+      CollectionVersions collectionVersions,
+      @Value("${search.trigram.similarity:0.3}") double similarityThreshold,
+      @Value("${search.trigram.max-matches:1000}") int maxMatches) {
+    this.petRepository = petRepository;
+    this.tutorRepository = tutorRepository;
+    this.collectionVersions = collectionVersions;
+    this.similarityThreshold = similarityThreshold;
+    this.maxMatches = maxMatches;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Indexes fresh = new Indexes();
+    synchronized (this) {
+      building = fresh;
+      touched.clear();
+    }
+
+    try {
+      long pets = 0;
+      String lastId = "";
+      List<PetNames> petPage;
+      do {
+        petPage = petRepository.findNamesByIdGreaterThanOrderById(lastId, Limit.of(WARMUP_BATCH));
+        for (PetNames pet : petPage) {
+          load(
+              fresh,
+              pet.getId(),
+              indexes -> putPet(indexes, pet.getId(), pet.getName(), pet.getBreed()));
+          lastId = pet.getId();
+        }
+        pets += petPage.size();
+      } while (petPage.size() == WARMUP_BATCH);
+
+      long tutors = 0;
+      lastId = "";
+      List<TutorName> tutorPage;
+      do {
+        tutorPage =
+            tutorRepository.findNameByIdGreaterThanOrderById(lastId, Limit.of(WARMUP_BATCH));
+        for (TutorName tutor : tutorPage) {
+          load(
+              fresh,
+              tutor.getId(),
+              indexes -> indexes.tutorNames().put(tutor.getId(), tutor.getName()));
+          lastId = tutor.getId();
+        }
+        tutors += tutorPage.size();
+      } while (tutorPage.size() == WARMUP_BATCH);
+
+      synchronized (this) {
+        current = fresh;
+      }
+
+      collectionVersions.touch(PetEntity.class);
+      collectionVersions.touch(TutorEntity.class);
+
+      log.info("Name search index built with {} pets and {} tutors", pets, tutors);
+
+    } finally {
+      synchronized (this) {
+        building = null;
+        touched.clear();
+      }
+    }
+  }
+
+  public void indexPet(PetEntity pet) {
+    String id = pet.getId();
+    String name = pet.getName();
+    String breed = pet.getBreed();
+
+    AfterCommit.run(() -> apply(id, indexes -> putPet(indexes, id, name, breed)));
+    collectionVersions.touch(PetEntity.class);
+  }
+
+  public void removePet(String id) {
+    AfterCommit.run(
+        () ->
+            apply(
+                id,
+                indexes -> {
+                  indexes.petNames().remove(id);
+                  indexes.petBreeds().remove(id);
+                }));
+    collectionVersions.touch(PetEntity.class);
+  }
+
+  public void indexTutor(TutorEntity tutor) {
+    String id = tutor.getId();
+    String name = tutor.getName();
+
+    AfterCommit.run(() -> apply(id, indexes -> indexes.tutorNames().put(id, name)));
+    collectionVersions.touch(TutorEntity.class);
+  }
+
+  public void removeTutor(String id) {
+    AfterCommit.run(() -> apply(id, indexes -> indexes.tutorNames().remove(id)));
+    collectionVersions.touch(TutorEntity.class);
+  }
+
+  /** Ids de pets para o filtro de nome; {@code null} quando o índice não pode responder. */
+  public Set<String> petsByName(String query, boolean fuzzy) {
+    return match(Indexes::petNames, query, fuzzy);
+  }
+
+  public Set<String> petsByBreed(String query, boolean fuzzy) {
+    return match(Indexes::petBreeds, query, fuzzy);
+  }
+
+  public Set<String> tutorsByName(String query, boolean fuzzy) {
+    return match(Indexes::tutorNames, query, fuzzy);
+  }
+
+  private Set<String> match(Function<Indexes, TrigramIndex> field, String query, boolean fuzzy) {
+    Indexes indexes = current;
+    if (indexes == null) {
+      return null;
+    }
+
+    TrigramIndex index = field.apply(indexes);
+    if (fuzzy) {
+      return index.similar(query, similarityThreshold, maxMatches);
+    }
+
+    Set<String> ids = index.containing(query);
+
+    // Consultas pouco seletivas virariam um IN gigante; nesse caso o LIKE é melhor
+    return (ids == null || ids.size() > maxMatches) ? null : ids;
+  }
+
+  // Alteração confirmada: vale para os índices atuais e para os que estão sendo montados
+  private synchronized void apply(String id, Consumer<Indexes> update) {
+    if (current != null) {
+      update.accept(current);
+    }
+    if (building != null) {
+      update.accept(building);
+      touched.add(id);
+    }
+  }
+
+  // Linha lida pela varredura: descartada se o id foi alterado depois do início do rebuild
+  private synchronized void load(Indexes fresh, String id, Consumer<Indexes> put) {
+    if (!touched.contains(id)) {
+      put.accept(fresh);
+    }
+  }
+
+  private static void putPet(Indexes indexes, String id, String name, String breed) {
+    indexes.petNames().put(id, name);
+    indexes.petBreeds().put(id, breed);
+  }
+}
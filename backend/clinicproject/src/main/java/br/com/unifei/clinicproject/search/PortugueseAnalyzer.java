@@ -0,0 +1,80 @@
+package br.com.unifei.clinicproject.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra texto em português em termos normalizados: minúsculas, sem acentos, sem stopwords e com
+ * um stemming leve (plural e vogal temática), para que "Dermatites" e "dermatite" caiam no mesmo
+ * termo.
+ */
+public final class PortugueseAnalyzer {
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+  private static final Set<String> STOPWORDS =
+      Set.of(
+          "a", "o", "as", "os", "e", "ou", "de", "da", "do", "das", "dos", "em", "na", "no", "nas",
+          "nos", "um", "uma", "uns", "umas", "ao", "aos", "para", "pra", "por", "com", "sem", "que",
+          "se", "sua", "seu", "suas", "seus", "pelo", "pela", "pelos", "pelas", "foi", "ser", "esta",
+          "este", "isso");
+
+  private PortugueseAnalyzer() {}
+
+  public static List<String> analyze(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null || text.isBlank()) return terms;
+
+    for (String token : NON_WORD.split(fold(text))) {
+      if (token.isEmpty() || STOPWORDS.contains(token)) continue;
+      terms.add(stem(token));
+    }
+
+    return terms;
+  }
+
+  public static String fold(String text) {
+    String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+    return DIACRITICS.matcher(decomposed).replaceAll("");
+  }
+
+  // Variante simplificada do stemmer "light" de Savoy, aplicada sobre o texto já sem acentos
+  static String stem(String term) {
+    if (term.length() < 4 || Character.isDigit(term.charAt(0))) return term;
+
+    String s = removePlural(term);
+
+    if (s.endsWith("mente") && s.length() > 7) {
+      s = s.substring(0, s.length() - 5);
+    }
+
+    // Vogal final (gênero / vogal temática): "infeccao" → "infecca", "dermatite" → "dermatit"
+    char last = s.charAt(s.length() - 1);
+    if (s.length() > 3 && (last == 'a' || last == 'e' || last == 'o')) {
+      s = s.substring(0, s.length() - 1);
+    }
+
+    return s;
+  }
+
+  private static String removePlural(String s) {
+    if (!s.endsWith("s")) return s;
+
+    if (s.endsWith("oes") || s.endsWith("aes")) return s.substring(0, s.length() - 3) + "ao";
+    if (s.endsWith("ais")) return s.substring(0, s.length() - 2) + "l";
+    if (s.endsWith("eis")) return s.substring(0, s.length() - 3) + "el";
+    if (s.endsWith("ois")) return s.substring(0, s.length() - 2) + "l";
+    if (s.endsWith("ns")) return s.substring(0, s.length() - 2) + "m";
+    if (s.endsWith("res") || s.endsWith("zes") || s.endsWith("ses")) {
+      return s.substring(0, s.length() - 2);
+    }
+    if (s.endsWith("is") || s.endsWith("us") || s.endsWith("ss")) return s;
+
+    return s.substring(0, s.length() - 1);
+  }
+}
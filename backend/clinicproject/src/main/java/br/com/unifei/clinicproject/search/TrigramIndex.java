@@ -0,0 +1,172 @@
+package br.com.unifei.clinicproject.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas de um único campo texto, em memória. Responde buscas por substring (todos os
+ * trigramas da consulta presentes + verificação final) e buscas tolerantes a erro de digitação
+ * (similaridade de Jaccard entre os conjuntos de trigramas).
+ */
+public class TrigramIndex {
+
+  private static final int N = 3;
+
+  private record Entry(String value, int trigramCount) {}
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Set<String>> postings = new HashMap<>();
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  public void put(String id, String value) {
+    lock.writeLock().lock();
+    try {
+      doRemove(id);
+
+      if (value == null || value.isBlank()) return;
+
+      String normalized = normalize(value);
+      Set<String> trigrams = trigrams(pad(normalized));
+
+      for (String trigram : trigrams) {
+        postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+      }
+      entries.put(id, new Entry(normalized, trigrams.size()));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      doRemove(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      entries.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ids cujo valor contém a consulta. Retorna {@code null} quando a consulta é curta demais para
+   * ter trigramas (menos de 3 caracteres) e o chamador precisa de outro caminho.
+   */
+  public Set<String> containing(String query) {
+    String normalized = normalize(query);
+    if (normalized.length() < N) return null;
+
+    lock.readLock().lock();
+    try {
+      // Interseção começando pela lista mais curta
+      List<Set<String>> lists = new ArrayList<>();
+      for (String trigram : trigrams(normalized)) {
+        Set<String> ids = postings.get(trigram);
+        if (ids == null) return Set.of();
+        lists.add(ids);
+      }
+      lists.sort(Comparator.comparingInt(Set::size));
+
+      Set<String> candidates = new HashSet<>(lists.get(0));
+      for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+        candidates.retainAll(lists.get(i));
+      }
+
+      // Trigramas presentes não garantem a ordem certa: confirma a substring
+      candidates.removeIf(id -> !entries.get(id).value().contains(normalized));
+      return candidates;
+
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Ids parecidos com a consulta, do mais para o menos similar, incluindo os que a contêm. */
+  public Set<String> similar(String query, double threshold, int limit) {
+    String normalized = normalize(query);
+    if (normalized.isEmpty()) return Set.of();
+
+    Set<String> queryTrigrams = trigrams(pad(normalized));
+
+    lock.readLock().lock();
+    try {
+      Map<String, Integer> shared = new HashMap<>();
+      for (String trigram : queryTrigrams) {
+        for (String id : postings.getOrDefault(trigram, Set.of())) {
+          shared.merge(id, 1, Integer::sum);
+        }
+      }
+
+      Map<String, Double> scores = new HashMap<>();
+      shared.forEach(
+          (id, common) -> {
+            Entry entry = entries.get(id);
+            double similarity =
+                (double) common / (queryTrigrams.size() + entry.trigramCount() - common);
+
+            if (entry.value().contains(normalized)) {
+              scores.put(id, Math.max(similarity, threshold) + 1);
+            } else if (similarity >= threshold) {
+              scores.put(id, similarity);
+            }
+          });
+
+      Set<String> result = new LinkedHashSet<>();
+      scores.entrySet().stream()
+          .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+          .limit(limit)
+          .forEach(e -> result.add(e.getKey()));
+      return result;
+
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void doRemove(String id) {
+    Entry previous = entries.remove(id);
+    if (previous == null) return;
+
+    for (String trigram : trigrams(pad(previous.value()))) {
+      Set<String> ids = postings.get(trigram);
+      if (ids == null) continue;
+
+      ids.remove(id);
+      if (ids.isEmpty()) postings.remove(trigram);
+    }
+  }
+
+  private static String normalize(String value) {
+    return PortugueseAnalyzer.fold(value).trim().replaceAll("\\s+", " ");
+  }
+
+  // Espaços nas bordas geram trigramas de início/fim de palavra, que pesam na similaridade
+  private static String pad(String value) {
+    return "  " + value + " ";
+  }
+
+  private static Set<String> trigrams(String value) {
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + N <= value.length(); i++) {
+      trigrams.add(value.substring(i, i + N));
+    }
+    return trigrams;
+  }
+}
@@ -0,0 +1,128 @@
+package br.com.unifei.clinicproject.search;
+
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository.TutorKeys;
+import br.com.unifei.clinicproject.repositories.UserRepository;
+import br.com.unifei.clinicproject.repositories.UserRepository.UserKeys;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filtros de Bloom das chaves únicas de tutores e usuários. Um "não" do filtro dispensa a consulta
+ * de unicidade no cadastro; um "talvez" cai na consulta. Até o aquecimento terminar, toda chave é
+ * "talvez". A constraint única do banco continua sendo a garantia final.
+ */
+@Log4j2
+@Component
+public class UniqueKeyFilter {
+
+  public enum KeySpace {
+    TUTOR_CPF(true),
+    TUTOR_EMAIL(true),
+    USER_CPF(false),
+    USER_EMAIL(false),
+    USER_USERNAME(false);
+
+    private final boolean tutor;
+
+    KeySpace(boolean tutor) {
+      this.tutor = tutor;
+    }
+  }
+
+  private static final int WARMUP_BATCH = 1000;
+
+  private final TutorRepository tutorRepository;
+  private final UserRepository userRepository;
+  private final Map<KeySpace, CountingBloomFilter> filters = new EnumMap<>(KeySpace.class);
+
+  private volatile boolean ready;
+
+  public UniqueKeyFilter(
+      TutorRepository tutorRepository,
+      UserRepository userRepository,
+      @Value("${uniqueness.bloom.expected-tutors:1000000}") int expectedTutors,
+      @Value("${uniqueness.bloom.expected-users:10000}") int expectedUsers,
+      @Value("${uniqueness.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.tutorRepository = tutorRepository;
+    this.userRepository = userRepository;
+
+    for (KeySpace space : KeySpace.values()) {
+      int expected = space.tutor ? expectedTutors : expectedUsers;
+      filters.put(space, new CountingBloomFilter(expected, falsePositiveRate));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    long tutors = 0;
+    String lastId = "";
+    List<TutorKeys> tutorPage;
+    do {
+      tutorPage = tutorRepository.findKeysByIdGreaterThanOrderById(lastId, Limit.of(WARMUP_BATCH));
+      for (TutorKeys keys : tutorPage) {
+        add(KeySpace.TUTOR_CPF, keys.getCpf());
+        add(KeySpace.TUTOR_EMAIL, keys.getEmail());
+        lastId = keys.getId();
+      }
+      tutors += tutorPage.size();
+    } while (tutorPage.size() == WARMUP_BATCH);
+
+    long users = 0;
+    lastId = "";
+    List<UserKeys> userPage;
+    do {
+      userPage = userRepository.findKeysByIdGreaterThanOrderById(lastId, Limit.of(WARMUP_BATCH));
+      for (UserKeys keys : userPage) {
+        add(KeySpace.USER_CPF, keys.getCpf());
+        add(KeySpace.USER_EMAIL, keys.getEmail());
+        add(KeySpace.USER_USERNAME, keys.getUsername());
+        lastId = keys.getId();
+      }
+      users += userPage.size();
+    } while (userPage.size() == WARMUP_BATCH);
+
+    ready = true;
+    log.info(
+        "Unique key filters warmed with {} tutors and {} users ({} KB)",
+        tutors,
+        users,
+        filters.values().stream().mapToLong(CountingBloomFilter::sizeInBytes).sum() / 1024);
+  }
+
+  /** {@code false} só quando a chave com certeza não está cadastrada. */
+  public boolean mightExist(KeySpace space, String key) {
+    return !ready || key == null || filters.get(space).mightContain(key);
+  }
+
+  // Adicionar antes do commit é seguro: no pior caso, um falso positivo a mais
+  public void add(KeySpace space, String key) {
+    if (key != null) filters.get(space).add(key);
+  }
+
+  public void remove(KeySpace space, String key) {
+    if (key == null) return;
+
+    // Antes do aquecimento a chave pode ainda não ter sido adicionada
+    AfterCommit.run(
+        () -> {
+          if (ready) filters.get(space).remove(key);
+        });
+  }
+
+  public void replace(KeySpace space, String oldKey, String newKey) {
+    if (Objects.equals(oldKey, newKey)) return;
+
+    add(space, newKey);
+    remove(space, oldKey);
+  }
+}
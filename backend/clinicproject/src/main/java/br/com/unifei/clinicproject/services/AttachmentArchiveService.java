@@ -0,0 +1,98 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.dtos.response.AttachmentResponse;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+@Log4j2
+@Service
+@Timed("clinic.service")
+public class AttachmentArchiveService {
+
+  // Formatos que já são comprimidos: deflate só gastaria CPU sem reduzir o tamanho
+  private static final Set<String> COMPRESSED_EXTENSIONS =
+      Set.of(
+          "png", "jpg", "jpeg", "gif", "webp", "pdf", "zip", "gz", "rar", "7z", "mp3", "mp4",
+          "mov", "avi", "mkv", "webm", "docx", "xlsx", "pptx");
+
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * Escreve os anexos como um ZIP diretamente no stream de saída, entrada por entrada, usando
+   * apenas um buffer fixo, sem montar o arquivo em memória.
+   */
+  public void writeZip(List<AttachmentResponse> attachments, OutputStream out)
+      throws IOException {
+    ZipOutputStream zipStream = new ZipOutputStream(out);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    Set<String> usedNames = new HashSet<>();
+
+    for (AttachmentResponse attachment : attachments) {
+
+      Path fullPath = Paths.get(attachment.getFilePath());
+      if (!Files.exists(fullPath)) {
+        log.warn("Attachment not found on disk, skipping: {}", attachment.getFilePath());
+        continue;
+      }
+
+      String filename = uniqueName(entryName(attachment, fullPath), usedNames);
+
+      zipStream.setLevel(
+          isCompressed(filename) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+
+      ZipEntry entry = new ZipEntry(filename);
+      entry.setLastModifiedTime(Files.getLastModifiedTime(fullPath));
+      zipStream.putNextEntry(entry);
+
+      try (var in = Files.newInputStream(fullPath)) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          zipStream.write(buffer, 0, read);
+        }
+      }
+
+      zipStream.closeEntry();
+    }
+
+    zipStream.finish();
+    zipStream.flush();
+  }
+
+  // Os arquivos no disco são nomeados pelo hash; no ZIP vale o nome original do upload
+  private static String entryName(AttachmentResponse attachment, Path fullPath) {
+    String name = attachment.getFileName();
+    return (name == null || name.isBlank()) ? fullPath.getFileName().toString() : name;
+  }
+
+  private static String uniqueName(String name, Set<String> usedNames) {
+    String candidate = name;
+    int dot = name.lastIndexOf('.');
+    String base = dot < 0 ? name : name.substring(0, dot);
+    String extension = dot < 0 ? "" : name.substring(dot);
+
+    for (int i = 1; !usedNames.add(candidate); i++) {
+      candidate = base + " (" + i + ")" + extension;
+    }
+    return candidate;
+  }
+
+  private static boolean isCompressed(String filename) {
+    int dot = filename.lastIndexOf('.');
+    if (dot < 0) return false;
+
+    return COMPRESSED_EXTENSIONS.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+}
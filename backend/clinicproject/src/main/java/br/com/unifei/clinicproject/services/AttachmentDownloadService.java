@@ -0,0 +1,173 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
+import br.com.unifei.clinicproject.metrics.TransferMetrics;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Envio de um único anexo, com {@code Range}/206 para retomar downloads e avançar em vídeos. O
+ * conteúdo não passa pela heap: no Tomcat o arquivo sai por sendfile; nos demais casos, por
+ * {@link FileChannel#transferTo}. Como o blob é endereçado pelo hash, o hash é a ETag e a resposta
+ * pode ser cacheada como imutável.
+ */
+@Log4j2
+@Service
+@Timed("clinic.service")
+@RequiredArgsConstructor
+public class AttachmentDownloadService {
+
+  // Atributos do Tomcat para sendfile (os mesmos que o DefaultServlet usa)
+  private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  // Abaixo disso copiar é mais barato que preparar o sendfile (mesmo limite do DefaultServlet)
+  private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+  private static final String IMMUTABLE =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+  private final TransferMetrics transferMetrics;
+
+  public void serve(
+      AttachmentView attachment, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+
+    Path file = Paths.get(attachment.filePath());
+    if (!Files.isRegularFile(file)) {
+      throw new EntityNotFoundException("Attachment file not found: " + attachment.id());
+    }
+
+    long size = Files.size(file);
+    long lastModified = Files.getLastModifiedTime(file).toMillis();
+    String etag = attachment.contentHash() == null ? null : "\"" + attachment.contentHash() + "\"";
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+
+    // Também preenche ETag e Last-Modified da resposta
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+
+    long start = 0;
+    long length = size;
+
+    String range = request.getHeader(HttpHeaders.RANGE);
+    if (range != null && ifRangeMatches(request, etag, lastModified)) {
+      List<HttpRange> ranges = parseRanges(range);
+
+      // multipart/byteranges quase não é usado: com vários intervalos, vai o arquivo inteiro
+      if (ranges.size() == 1) {
+        start = ranges.get(0).getRangeStart(size);
+        length = ranges.get(0).getRangeEnd(size) - start + 1;
+
+        if (start >= size || length <= 0) {
+          response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+          response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+          return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(
+            HttpHeaders.CONTENT_RANGE,
+            "bytes " + start + "-" + (start + length - 1) + "/" + size);
+      }
+    }
+
+    response.setContentType(
+        MediaTypeFactory.getMediaType(attachment.fileName())
+            .orElse(MediaType.APPLICATION_OCTET_STREAM)
+            .toString());
+    response.setHeader("X-Content-Type-Options", "nosniff");
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.inline()
+            .filename(attachment.fileName(), StandardCharsets.UTF_8)
+            .build()
+            .toString());
+    response.setContentLengthLong(length);
+
+    if ("HEAD".equals(request.getMethod()) || length == 0) {
+      return;
+    }
+
+    boolean sendfile = Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED));
+    if (sendfile && length >= SENDFILE_MIN_SIZE) {
+      // O Tomcat envia depois que o controller retorna, direto do page cache para o socket
+      log.debug("Sending {} bytes of {} via sendfile", length, attachment.id());
+      request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, start + length);
+      transferMetrics.downloaded(TransferMetrics.Kind.FILE, length);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+
+      long position = start;
+      long end = start + length;
+      while (position < end) {
+        long sent = channel.transferTo(position, end - position, out);
+        if (sent <= 0) break;
+        position += sent;
+      }
+
+      transferMetrics.downloaded(TransferMetrics.Kind.FILE, position - start);
+    }
+  }
+
+  // Range inválido é ignorado (RFC 9110): responde com o arquivo inteiro
+  private static List<HttpRange> parseRanges(String range) {
+    try {
+      return HttpRange.parseRanges(range);
+    } catch (IllegalArgumentException e) {
+      return List.of();
+    }
+  }
+
+  // If-Range: o intervalo só vale se o arquivo ainda for o que o cliente começou a baixar
+  private static boolean ifRangeMatches(
+      HttpServletRequest request, String etag, long lastModified) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag);
+    }
+
+    try {
+      return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,395 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.dtos.request.PetImportRequest;
+import br.com.unifei.clinicproject.dtos.request.TutorRequest;
+import br.com.unifei.clinicproject.dtos.response.ImportReportResponse;
+import br.com.unifei.clinicproject.dtos.response.ImportReportResponse.RowError;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.imports.ImportFormat;
+import br.com.unifei.clinicproject.imports.ImportRow;
+import br.com.unifei.clinicproject.imports.ImportRowReader;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository.TutorKeys;
+import br.com.unifei.clinicproject.search.NameSearchIndex;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter.KeySpace;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Importação em lote de tutores e pets (migração de outros sistemas). O arquivo é lido em
+ * streaming e processado em lotes: validação, uma consulta de unicidade por lote e INSERT em
+ * batch via JDBC, cada lote na sua transação. Linhas com problema entram no relatório sem
+ * interromper o restante.
+ */
+@Log4j2
+@Service
+@Timed("clinic.service")
+public class BulkImportService {
+
+  private static final String INSERT_TUTOR =
+      "INSERT INTO TUTOR (USER_ID, NAME, CPF, EMAIL, PHONE, ADDRESS, BIRTH_DATE, PASSWORD,"
+          + " CREATED_DATE, ACTIVE, VERSION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, 0)";
+
+  private static final String INSERT_PET =
+      "INSERT INTO PETS (ID, NAME, SPECIES, BREED, SEX, BIRTH_DATE, COLOR, WEIGHT, TUTOR_ID,"
+          + " NOTES, CREATED_DATE, VERSION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+  private final TutorRepository tutorRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final PasswordHashingService passwordHashingService;
+  private final NameSearchIndex nameSearchIndex;
+  private final UniqueKeyFilter uniqueKeys;
+  private final CollectionVersions collectionVersions;
+  private final int batchSize;
+  private final int maxReportedErrors;
+
+  public BulkImportService(
+      TutorRepository tutorRepository,
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      Validator validator,
+      ObjectMapper objectMapper,
+      PasswordHashingService passwordHashingService,
+      NameSearchIndex nameSearchIndex,
+      UniqueKeyFilter uniqueKeys,
+      CollectionVersions collectionVersions,
+      @Value("${import.batch-size:1000}") int batchSize,
+      @Value("${import.max-reported-errors:1000}") int maxReportedErrors) {
+    this.tutorRepository = tutorRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.passwordHashingService = passwordHashingService;
+    this.nameSearchIndex = nameSearchIndex;
+    this.uniqueKeys = uniqueKeys;
+    this.collectionVersions = collectionVersions;
+    this.batchSize = batchSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  private record Parsed<T>(long line, T value) {}
+
+  /**
+   * Tutores: CPF e e-mail são checados contra o banco (uma consulta por lote) e contra as
+   * linhas anteriores do próprio arquivo. Senhas que já chegam como hash BCrypt são gravadas
+   * como estão.
+   */
+  public ImportReportResponse importTutors(InputStream input, ImportFormat format) {
+    Set<String> seenCpfs = new HashSet<>();
+    Set<String> seenEmails = new HashSet<>();
+
+    return run(
+        input,
+        format,
+        TutorRequest.class,
+        (batch, report) -> importTutorBatch(batch, report, seenCpfs, seenEmails));
+  }
+
+  /** Pets: o tutor de cada linha é resolvido pelo CPF, com uma consulta por lote. */
+  public ImportReportResponse importPets(InputStream input, ImportFormat format) {
+    return run(input, format, PetImportRequest.class, this::importPetBatch);
+  }
+
+  private void importTutorBatch(
+      List<Parsed<TutorRequest>> batch,
+      Report report,
+      Set<String> seenCpfs,
+      Set<String> seenEmails) {
+
+    List<Parsed<TutorRequest>> candidates = new ArrayList<>(batch.size());
+    for (Parsed<TutorRequest> row : batch) {
+      if (!seenCpfs.add(row.value().cpf())) {
+        report.fail(row.line(), "CPF repetido no arquivo.");
+      } else if (!seenEmails.add(row.value().email())) {
+        report.fail(row.line(), "E-mail repetido no arquivo.");
+      } else {
+        candidates.add(row);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return;
+    }
+
+    // Só as linhas que o filtro de Bloom não descarta vão para a consulta de unicidade
+    List<Parsed<TutorRequest>> suspects =
+        candidates.stream()
+            .filter(
+                r ->
+                    uniqueKeys.mightExist(KeySpace.TUTOR_CPF, r.value().cpf())
+                        || uniqueKeys.mightExist(KeySpace.TUTOR_EMAIL, r.value().email()))
+            .toList();
+    List<TutorKeys> existing =
+        suspects.isEmpty()
+            ? List.of()
+            : tutorRepository.findKeysByCpfInOrEmailIn(
+                suspects.stream().map(r -> r.value().cpf()).toList(),
+                suspects.stream().map(r -> r.value().email()).toList());
+    Set<String> existingCpfs =
+        existing.stream().map(TutorKeys::getCpf).collect(Collectors.toSet());
+    Set<String> existingEmails =
+        existing.stream().map(TutorKeys::getEmail).collect(Collectors.toSet());
+
+    List<Parsed<TutorRequest>> accepted = new ArrayList<>(candidates.size());
+    for (Parsed<TutorRequest> row : candidates) {
+      if (existingCpfs.contains(row.value().cpf())) {
+        report.fail(row.line(), "CPF já cadastrado.");
+      } else if (existingEmails.contains(row.value().email())) {
+        report.fail(row.line(), "E-mail já cadastrado.");
+      } else {
+        accepted.add(row);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    // Hash fora da transação, para não segurar conexão do pool
+    Iterator<String> hashes =
+        passwordHashingService
+            .encodeAll(
+                accepted.stream()
+                    .map(r -> r.value().password())
+                    .filter(p -> !PasswordHashingService.isEncoded(p))
+                    .toList())
+            .iterator();
+
+    OffsetDateTime now = OffsetDateTime.now();
+    List<TutorEntity> tutors = new ArrayList<>(accepted.size());
+    List<Object[]> args = new ArrayList<>(accepted.size());
+    for (Parsed<TutorRequest> row : accepted) {
+      TutorRequest t = row.value();
+      String password =
+          PasswordHashingService.isEncoded(t.password()) ? t.password() : hashes.next();
+      String id = UUID.randomUUID().toString();
+
+      tutors.add(TutorEntity.builder().id(id).name(t.name()).build());
+      args.add(
+          new Object[] {
+            id, t.name(), t.cpf(), t.email(), t.phone(), t.address(), t.birthDate(), password, now
+          });
+    }
+
+    boolean[] inserted = insert(INSERT_TUTOR, accepted, args, report);
+    // INSERT via JDBC não passa pelos eventos do Hibernate
+    collectionVersions.touch(TutorEntity.class);
+    for (int i = 0; i < tutors.size(); i++) {
+      if (inserted[i]) {
+        nameSearchIndex.indexTutor(tutors.get(i));
+        uniqueKeys.add(KeySpace.TUTOR_CPF, accepted.get(i).value().cpf());
+        uniqueKeys.add(KeySpace.TUTOR_EMAIL, accepted.get(i).value().email());
+      }
+    }
+  }
+
+  private void importPetBatch(List<Parsed<PetImportRequest>> batch, Report report) {
+    Map<String, String> tutorIds =
+        tutorRepository
+            .findKeysByCpfIn(batch.stream().map(r -> r.value().tutorCpf()).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(TutorKeys::getCpf, TutorKeys::getId));
+
+    OffsetDateTime now = OffsetDateTime.now();
+    List<Parsed<PetImportRequest>> accepted = new ArrayList<>(batch.size());
+    List<PetEntity> pets = new ArrayList<>(batch.size());
+    List<Object[]> args = new ArrayList<>(batch.size());
+    for (Parsed<PetImportRequest> row : batch) {
+      PetImportRequest p = row.value();
+      String tutorId = tutorIds.get(p.tutorCpf());
+      if (tutorId == null) {
+        report.fail(row.line(), "Tutor não encontrado para o CPF " + p.tutorCpf());
+        continue;
+      }
+      String id = UUID.randomUUID().toString();
+
+      accepted.add(row);
+      pets.add(PetEntity.builder().id(id).name(p.name()).breed(p.breed()).build());
+      args.add(
+          new Object[] {
+            id,
+            p.name(),
+            p.species(),
+            p.breed(),
+            p.sex(),
+            p.birthDate(),
+            p.color(),
+            p.weight(),
+            tutorId,
+            p.notes(),
+            now
+          });
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    boolean[] inserted = insert(INSERT_PET, accepted, args, report);
+    collectionVersions.touch(PetEntity.class);
+    for (int i = 0; i < pets.size(); i++) {
+      if (inserted[i]) {
+        nameSearchIndex.indexPet(pets.get(i));
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface BatchHandler<T> {
+    void handle(List<Parsed<T>> batch, Report report);
+  }
+
+  private <T> ImportReportResponse run(
+      InputStream input, ImportFormat format, Class<T> type, BatchHandler<T> handler) {
+    long start = System.nanoTime();
+    Report report = new Report(maxReportedErrors);
+    List<Parsed<T>> batch = new ArrayList<>(batchSize);
+
+    try (ImportRowReader reader = new ImportRowReader(input, format, objectMapper)) {
+      ImportRow row;
+      while ((row = reader.next()) != null) {
+        report.processed++;
+        Parsed<T> parsed = parse(row, type, report);
+        if (parsed != null) {
+          batch.add(parsed);
+        }
+        if (batch.size() == batchSize) {
+          handler.handle(batch, report);
+          batch.clear();
+        }
+      }
+      if (!batch.isEmpty()) {
+        handler.handle(batch, report);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao ler o arquivo de importação", e);
+    }
+
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    log.info(
+        "Import of {} finished: {} rows, {} imported, {} failed in {} ms",
+        type.getSimpleName(),
+        report.processed,
+        report.imported,
+        report.failed,
+        elapsed);
+
+    return ImportReportResponse.builder()
+        .processed(report.processed)
+        .imported(report.imported)
+        .failed(report.failed)
+        .elapsedMillis(elapsed)
+        .errors(report.errors)
+        .build();
+  }
+
+  private <T> Parsed<T> parse(ImportRow row, Class<T> type, Report report) {
+    if (row.error() != null) {
+      report.fail(row.line(), row.error());
+      return null;
+    }
+
+    T value;
+    try {
+      value = objectMapper.convertValue(row.values(), type);
+    } catch (IllegalArgumentException e) {
+      String message =
+          e.getCause() instanceof JsonMappingException mapping
+              ? mapping.getOriginalMessage()
+              : e.getMessage();
+      report.fail(row.line(), "Valor inválido: " + message);
+      return null;
+    }
+
+    // Hash BCrypt migrado não passa pela política de senha, que vale para a senha em texto
+    boolean preHashed =
+        value instanceof TutorRequest tutor && PasswordHashingService.isEncoded(tutor.password());
+    String violations =
+        validator.validate(value).stream()
+            .filter(v -> !(preHashed && v.getPropertyPath().toString().equals("password")))
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining("; "));
+    if (!violations.isEmpty()) {
+      report.fail(row.line(), violations);
+      return null;
+    }
+
+    return new Parsed<>(row.line(), value);
+  }
+
+  /**
+   * INSERT em batch numa transação. Se o lote esbarrar numa constraint (ex.: cadastro online
+   * concorrente com o mesmo CPF), refaz linha a linha para apontar só as linhas culpadas.
+   */
+  private boolean[] insert(
+      String sql, List<? extends Parsed<?>> rows, List<Object[]> args, Report report) {
+    boolean[] inserted = new boolean[rows.size()];
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+      Arrays.fill(inserted, true);
+      report.imported += rows.size();
+      return inserted;
+    } catch (DataIntegrityViolationException e) {
+      log.warn("Import batch rejected by the database, retrying row by row: {}", e.getMessage());
+    }
+
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = args.get(i);
+      try {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql, row));
+        inserted[i] = true;
+        report.imported++;
+      } catch (DataIntegrityViolationException e) {
+        report.fail(rows.get(i).line(), "Registro rejeitado pelo banco (duplicado ou inválido).");
+      }
+    }
+    return inserted;
+  }
+
+  private static final class Report {
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long processed;
+    private long imported;
+    private long failed;
+
+    private Report(int maxErrors) {
+      this.maxErrors = maxErrors;
+    }
+
+    private void fail(long line, String message) {
+      failed++;
+      if (errors.size() < maxErrors) {
+        errors.add(new RowError(line, message));
+      }
+    }
+  }
+}
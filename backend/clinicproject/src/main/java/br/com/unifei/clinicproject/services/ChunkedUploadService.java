@@ -0,0 +1,338 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.dtos.request.UploadSessionRequest;
+import br.com.unifei.clinicproject.dtos.response.UploadSessionResponse;
+import br.com.unifei.clinicproject.exceptions.InvalidChunkException;
+import br.com.unifei.clinicproject.exceptions.UploadConflictException;
+import br.com.unifei.clinicproject.exceptions.UploadSessionNotFoundException;
+import br.com.unifei.clinicproject.metrics.TransferMetrics;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Upload de anexos grandes em partes numeradas. Cada parte é gravada direto na sua posição de um
+ * arquivo de staging, com um buffer fixo; se a conexão cair, o cliente reenvia só as partes que
+ * faltam.
+ *
+ * <p>Sessões abandonadas são descartadas periodicamente, junto com o arquivo de staging.
+ */
+@Log4j2
+@Service
+@Timed("clinic.service")
+public class ChunkedUploadService {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileStorageService fileStorageService;
+  private final MedicalRecordService medicalRecordService;
+  private final TransferMetrics transferMetrics;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final Duration sessionTtl;
+  private final Duration purgeInterval;
+
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "upload-session-purge");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public ChunkedUploadService(
+      FileStorageService fileStorageService,
+      MedicalRecordService medicalRecordService,
+      TransferMetrics transferMetrics,
+      TransactionTemplate transactionTemplate,
+      @Value("${file.upload.chunk-size:8388608}") int chunkSize,
+      @Value("${file.upload.session-ttl:24h}") Duration sessionTtl,
+      @Value("${file.upload.session-purge-interval:1h}") Duration purgeInterval) {
+    this.fileStorageService = fileStorageService;
+    this.medicalRecordService = medicalRecordService;
+    this.transferMetrics = transferMetrics;
+    this.transactionTemplate = transactionTemplate;
+    this.chunkSize = chunkSize;
+    this.sessionTtl = sessionTtl;
+    this.purgeInterval = purgeInterval;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    long interval = purgeInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(
+        this::discardExpiredSessions, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  public UploadSessionResponse createSession(UploadSessionRequest request) {
+    try {
+      Path stagingFile = fileStorageService.createStagingFile();
+      int totalChunks = (int) ((request.getTotalSize() + chunkSize - 1) / chunkSize);
+
+      var session =
+          new UploadSession(
+              UUID.randomUUID().toString(),
+              request.getFileName(),
+              request.getTotalSize(),
+              totalChunks,
+              stagingFile);
+
+      sessions.put(session.id, session);
+
+      log.info(
+          "Upload session {} created for {} ({} bytes, {} chunks)",
+          session.id,
+          session.fileName,
+          session.totalSize,
+          totalChunks);
+
+      return toResponse(session);
+
+    } catch (IOException e) {
+      throw new RuntimeException("Could not create upload session", e);
+    }
+  }
+
+  public UploadSessionResponse getSession(String sessionId) {
+    return toResponse(findSession(sessionId));
+  }
+
+  public UploadSessionResponse writeChunk(
+      String sessionId, int index, Long offset, InputStream body) {
+    UploadSession session = findSession(sessionId);
+    session.checkNotCompleting();
+
+    if (index < 0 || index >= session.totalChunks) {
+      throw new InvalidChunkException("Chunk index out of range: " + index);
+    }
+
+    long position = (long) index * chunkSize;
+    long expectedLength = Math.min(chunkSize, session.totalSize - position);
+
+    if (offset != null && offset != position) {
+      throw new InvalidChunkException(
+          "Chunk " + index + " must start at offset " + position + ", got " + offset);
+    }
+
+    // Reenvio de uma parte já recebida: enquanto a nova gravação não termina, o conteúdo dela no
+    // staging é incerto, e uma falha no meio não pode deixá-la marcada como recebida
+    session.clearReceived(index);
+
+    try (FileChannel channel =
+        FileChannel.open(session.stagingFile, StandardOpenOption.WRITE)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long written = 0;
+      int read;
+
+      while ((read = body.read(buffer)) != -1) {
+        if (written + read > expectedLength) {
+          throw new InvalidChunkException(
+              "Chunk " + index + " exceeds expected length of " + expectedLength + " bytes");
+        }
+
+        ByteBuffer src = ByteBuffer.wrap(buffer, 0, read);
+        while (src.hasRemaining()) {
+          written += channel.write(src, position + written);
+        }
+      }
+
+      if (written != expectedLength) {
+        throw new InvalidChunkException(
+            "Chunk " + index + " has " + written + " bytes, expected " + expectedLength);
+      }
+      transferMetrics.uploaded(TransferMetrics.Kind.CHUNK, written);
+
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write chunk " + index + " of session " + sessionId, e);
+    }
+
+    session.markReceived(index);
+
+    return toResponse(session);
+  }
+
+  public void complete(String sessionId, String recordId, String veterinarianId) {
+    UploadSession session = findSession(sessionId);
+
+    if (!session.isComplete()) {
+      throw new UploadConflictException(
+          "Upload session " + sessionId + " is missing chunks " + session.missingChunks());
+    }
+
+    // Uma segunda chamada concorrente não vincula o mesmo arquivo duas vezes
+    if (!session.completing.compareAndSet(false, true)) {
+      throw new UploadConflictException("Upload session " + sessionId + " is already completing");
+    }
+
+    try {
+      FileStorageService.StoredFile stored = fileStorageService.hashStagedFile(session.stagingFile);
+
+      // A promoção é registrada antes do vínculo, para a miniatura já estar na fila quando o
+      // anexo for confirmado. Se o vínculo falhar, o arquivo fica no staging e a sessão
+      // continua válida para uma nova tentativa
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            fileStorageService.promoteOnCommit(session.stagingFile, stored, session.fileName);
+            medicalRecordService.addAttachment(recordId, session.fileName, stored, veterinarianId);
+          });
+
+    } catch (RuntimeException e) {
+      session.completing.set(false);
+      throw e;
+    }
+
+    sessions.remove(sessionId);
+    log.info("Upload session {} attached to medical record {}", sessionId, recordId);
+  }
+
+  public void cancel(String sessionId) {
+    UploadSession session = sessions.get(sessionId);
+    if (session == null) return;
+
+    session.checkNotCompleting();
+    if (sessions.remove(sessionId, session)) {
+      deleteStagingFile(session);
+    }
+  }
+
+  private UploadSession findSession(String sessionId) {
+    UploadSession session = sessions.get(sessionId);
+
+    if (session == null) {
+      throw new UploadSessionNotFoundException("Upload session not found with id: " + sessionId);
+    }
+
+    session.touch();
+    return session;
+  }
+
+  // Roda no agendador: uma exceção aqui cancelaria as próximas execuções
+  private void discardExpiredSessions() {
+    Instant limit = Instant.now().minus(sessionTtl);
+
+    try {
+      sessions
+          .values()
+          .removeIf(
+              session -> {
+                // Reivindica a sessão como o complete(), para não apagar um upload em conclusão
+                if (session.lastActivity.isAfter(limit)
+                    || !session.completing.compareAndSet(false, true)) {
+                  return false;
+                }
+
+                log.info("Discarding expired upload session {}", session.id);
+                deleteStagingFile(session);
+                return true;
+              });
+    } catch (RuntimeException e) {
+      log.error("Could not discard expired upload sessions", e);
+    }
+  }
+
+  private static void deleteStagingFile(UploadSession session) {
+    try {
+      Files.deleteIfExists(session.stagingFile);
+    } catch (IOException e) {
+      log.warn("Could not delete staging file {}", session.stagingFile, e);
+    }
+  }
+
+  private UploadSessionResponse toResponse(UploadSession session) {
+    List<Integer> missing = session.missingChunks();
+
+    return UploadSessionResponse.builder()
+        .id(session.id)
+        .fileName(session.fileName)
+        .totalSize(session.totalSize)
+        .chunkSize(chunkSize)
+        .totalChunks(session.totalChunks)
+        .missingChunks(missing)
+        .complete(missing.isEmpty())
+        .build();
+  }
+
+  private static final class UploadSession {
+
+    private final String id;
+    private final String fileName;
+    private final long totalSize;
+    private final int totalChunks;
+    private final Path stagingFile;
+    private final BitSet received;
+    private final AtomicBoolean completing = new AtomicBoolean();
+
+    private volatile Instant lastActivity = Instant.now();
+
+    private UploadSession(
+        String id, String fileName, long totalSize, int totalChunks, Path stagingFile) {
+      this.id = id;
+      this.fileName = fileName;
+      this.totalSize = totalSize;
+      this.totalChunks = totalChunks;
+      this.stagingFile = stagingFile;
+      this.received = new BitSet(totalChunks);
+    }
+
+    private void touch() {
+      lastActivity = Instant.now();
+    }
+
+    private void checkNotCompleting() {
+      if (completing.get()) {
+        throw new UploadConflictException("Upload session " + id + " is already completing");
+      }
+    }
+
+    private synchronized void markReceived(int index) {
+      received.set(index);
+    }
+
+    private synchronized void clearReceived(int index) {
+      received.clear(index);
+    }
+
+    private synchronized boolean isComplete() {
+      return received.cardinality() == totalChunks;
+    }
+
+    private synchronized List<Integer> missingChunks() {
+      List<Integer> missing = new ArrayList<>();
+      for (int i = received.nextClearBit(0); i < totalChunks; i = received.nextClearBit(i + 1)) {
+        missing.add(i);
+      }
+      return missing;
+    }
+  }
+}
@@ -1,51 +1,391 @@
 package br.com.unifei.clinicproject.services;
 
+import br.com.unifei.clinicproject.metrics.TransferMetrics;
+import br.com.unifei.clinicproject.repositories.MedicalRecordAttachmentRepository;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
-
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * Armazenamento endereçado por conteúdo: cada arquivo é gravado uma única vez em {@code
+ * ab/cd/<sha-256>} e reaproveitado por todos os anexos com o mesmo conteúdo.
+ *
+ * <p>Os anexos de uma requisição são gravados em paralelo num pool de I/O limitado; com a fila
+ * cheia a própria thread da requisição grava, o que segura quem envia rápido demais.
+ *
+ * <p>Nenhum fluxo remove anexos, então um blob gravado nunca é apagado; como o conteúdo de um hash
+ * é sempre o mesmo, reaproveitar e promover dispensam lock e não prendem threads virtuais.
+ *
+ * <p>Uma promoção que falha depois do commit mantém o arquivo no staging e é tentada de novo
+ * periodicamente ({@code clinic.storage.promotion.failures} e {@code .pending}). Essa fila só
+ * existe em memória: na inicialização, o que sobrou no staging de uma execução anterior é promovido
+ * se algum anexo já aponta para o hash, e apagado se não. Uploads em partes inacabados somem.
+ */
 @Log4j2
 @Service
+@Timed("clinic.service")
 public class FileStorageService {
 
+  private static final String STAGING_DIR = ".staging";
+
   private final Path root;
+  private final Path staging;
+  private final MedicalRecordAttachmentRepository attachmentRepository;
+  private final TransferMetrics transferMetrics;
+  private final ThumbnailService thumbnailService;
+  private final ThreadPoolExecutor ioExecutor;
+  private final Duration promotionRetryInterval;
+
+  private final Queue<Staged> failedPromotions = new ConcurrentLinkedQueue<>();
+  private final AtomicLong promotionFailures = new AtomicLong();
+  // Arquivos de staging mais novos que isso podem ser de uploads em andamento
+  private final Instant startedAt = Instant.now();
 
-  public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "file-promotion-retry");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+
+  public FileStorageService(
+      @Value("${file.upload-dir}") String uploadDir,
+      MedicalRecordAttachmentRepository attachmentRepository,
+      TransferMetrics transferMetrics,
+      ThumbnailService thumbnailService,
+      @Value("${file.upload.io-threads:4}") int ioThreads,
+      @Value("${file.upload.io-queue-capacity:64}") int ioQueueCapacity,
+      @Value("${file.upload.promotion-retry-interval:1m}") Duration promotionRetryInterval) {
     log.info("Upload directory path: {}", uploadDir);
     this.root = Paths.get(uploadDir);
+    this.staging = root.resolve(STAGING_DIR);
+    this.attachmentRepository = attachmentRepository;
+    this.transferMetrics = transferMetrics;
+    this.thumbnailService = thumbnailService;
+    this.promotionRetryInterval = promotionRetryInterval;
+
+    AtomicInteger counter = new AtomicInteger();
+    this.ioExecutor =
+        new ThreadPoolExecutor(
+            ioThreads,
+            ioThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(ioQueueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "file-io-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
 
     try {
-      if (!Files.exists(root)) {
-        Files.createDirectory(root);
-      }
+      Files.createDirectories(staging);
     } catch (IOException e) {
       throw new RuntimeException("Could not initialize storage folder!", e);
     }
   }
 
-  public String saveFile(MultipartFile file) {
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.execute(this::reconcileStaging);
+
+    long interval = promotionRetryInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(
+        this::retryFailedPromotions, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public record StoredFile(String hash, String path, long size) {}
+
+  // Arquivo já gravado no staging (tmp nulo quando o blob já existia), à espera do commit
+  private record Staged(StoredFile stored, Path tmp, String contentType, String fileName) {}
+
+  /**
+   * Grava os arquivos em paralelo no staging e espera todos. A promoção para o local definitivo só
+   * acontece depois do commit da transação corrente; no rollback os temporários são apagados. O
+   * resultado segue a ordem de {@code files}, com {@code null} para arquivos vazios.
+   */
+  public List<StoredFile> saveFiles(List<MultipartFile> files) {
+    List<CompletableFuture<Staged>> jobs =
+        files.stream()
+            .map(file -> CompletableFuture.supplyAsync(() -> stage(file), ioExecutor))
+            .toList();
+
+    try {
+      CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      // allOf só termina depois de todos: descarta o que os outros já gravaram
+      jobs.stream()
+          .filter(job -> !job.isCompletedExceptionally())
+          .map(CompletableFuture::join)
+          .forEach(this::discard);
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    List<Staged> staged = jobs.stream().map(CompletableFuture::join).toList();
+    AfterCommit.run(() -> staged.forEach(this::promote), () -> staged.forEach(this::discard));
+
+    return staged.stream().map(file -> file == null ? null : file.stored()).toList();
+  }
+
+  private Staged stage(MultipartFile file) {
     try {
       if (file.isEmpty()) {
         return null;
       }
+      transferMetrics.uploaded(TransferMetrics.Kind.ATTACHMENT, file.getSize());
+
+      // Uma passada só: grava no staging calculando o hash; o rename atômico fica para depois do
+      // commit, e se o blob já existe o temporário é descartado
+      Path tmp = Files.createTempFile(staging, "upload-", ".tmp");
+      try {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+          Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        }
 
-      String filename = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-      Path path = this.root.resolve(filename);
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Path target = resolveBlob(hash);
 
-      Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+        if (Files.exists(target)) {
+          log.info("Reusing stored blob {} for {}", hash, file.getOriginalFilename());
+          deleteStaged(tmp);
+          StoredFile stored = new StoredFile(hash, target.toString(), Files.size(target));
+          return new Staged(stored, null, file.getContentType(), file.getOriginalFilename());
+        }
 
-      return path.toString();
+        StoredFile stored = new StoredFile(hash, target.toString(), Files.size(tmp));
+        return new Staged(stored, tmp, file.getContentType(), file.getOriginalFilename());
+      } catch (Exception e) {
+        // Cópia interrompida no meio: o temporário parcial não serve para nada
+        deleteStaged(tmp);
+        throw e;
+      }
 
     } catch (Exception e) {
       throw new RuntimeException("Could not save file: " + file.getOriginalFilename(), e);
     }
   }
+
+  // Roda depois do commit: uma exceção aqui viraria erro para uma requisição já confirmada. Na
+  // falha o arquivo fica no staging e a promoção volta para a fila de novas tentativas
+  private void promote(Staged file) {
+    if (file == null) {
+      return;
+    }
+
+    String hash = file.stored().hash();
+    try {
+      if (file.tmp() != null) {
+        promote(file.tmp(), hash);
+      }
+      thumbnail(hash, resolveBlob(hash), file.contentType(), file.fileName());
+    } catch (IOException e) {
+      log.error("Could not promote staged file {} to blob {}, will retry", file.tmp(), hash, e);
+      promotionFailures.incrementAndGet();
+      failedPromotions.add(file);
+    }
+  }
+
+  private void retryFailedPromotions() {
+    try {
+      // Só as que já estavam na fila: as que falharem de novo voltam para a próxima rodada
+      for (int pending = failedPromotions.size(); pending > 0; pending--) {
+        Staged file = failedPromotions.poll();
+        if (file == null) return;
+
+        log.info("Retrying promotion of staged file {}", file.tmp());
+        promote(file);
+      }
+    } catch (RuntimeException e) {
+      // Uma exceção aqui cancelaria o agendamento
+      log.error("Could not retry staged file promotions", e);
+    }
+  }
+
+  // Roda no agendador, antes das novas tentativas: a transação de cada arquivo que sobrou foi
+  // confirmada se algum anexo aponta para o hash dele (queda entre o commit e a promoção, ou
+  // promoção ainda na fila de novas tentativas); se nenhum aponta, ela não chegou ao commit. As
+  // sessões de upload em partes só existem em memória, então as partes que sobraram não têm dono
+  private void reconcileStaging() {
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(staging, "{upload-*.tmp,chunked-*.part}")) {
+      for (Path tmp : files) {
+        try {
+          if (!Files.getLastModifiedTime(tmp).toInstant().isBefore(startedAt)) {
+            continue;
+          }
+
+          if (tmp.getFileName().toString().startsWith("chunked-")) {
+            log.info("Deleting chunked upload {} left by a previous run", tmp);
+            deleteStaged(tmp);
+          } else {
+            reconcile(tmp);
+          }
+        } catch (IOException | RuntimeException e) {
+          log.error("Could not reconcile staged file {}", tmp, e);
+        }
+      }
+    } catch (IOException e) {
+      log.error("Could not list staging folder {}", staging, e);
+    }
+  }
+
+  private void reconcile(Path tmp) throws IOException {
+    String hash;
+    try (InputStream in = Files.newInputStream(tmp)) {
+      hash = digest(in);
+    }
+
+    if (attachmentRepository.countByContentHash(hash) > 0) {
+      log.info("Promoting staged file {} left by a previous run to blob {}", tmp, hash);
+      promote(tmp, hash);
+    } else {
+      log.info("Deleting uncommitted staged file {} left by a previous run", tmp);
+      deleteStaged(tmp);
+    }
+  }
+
+  /** Promoções que falharam depois do commit, contando cada tentativa. */
+  public long promotionFailures() {
+    return promotionFailures.get();
+  }
+
+  /** Arquivos confirmados que continuam no staging à espera de uma nova tentativa. */
+  public int pendingPromotions() {
+    return failedPromotions.size();
+  }
+
+  private void discard(Staged file) {
+    if (file == null || file.tmp() == null) {
+      return;
+    }
+
+    deleteStaged(file.tmp());
+  }
+
+  private static void deleteStaged(Path tmp) {
+    try {
+      Files.deleteIfExists(tmp);
+    } catch (IOException e) {
+      log.warn("Could not delete staged file {}", tmp, e);
+    }
+  }
+
+  /** Cria um arquivo vazio no staging, para uploads montados em partes. */
+  public Path createStagingFile() throws IOException {
+    return Files.createTempFile(staging, "chunked-", ".part");
+  }
+
+  /** Calcula o hash de um arquivo já completo no staging, sem tirá-lo de lá. */
+  public StoredFile hashStagedFile(Path tmp) {
+    try (InputStream in = Files.newInputStream(tmp)) {
+      String hash = digest(in);
+      return new StoredFile(hash, resolveBlob(hash).toString(), Files.size(tmp));
+
+    } catch (IOException e) {
+      throw new RuntimeException("Could not read staged file: " + tmp.getFileName(), e);
+    }
+  }
+
+  /**
+   * Promove o arquivo do staging depois do commit da transação corrente. No rollback ele continua
+   * no staging, para que o upload possa ser concluído de novo.
+   */
+  public void promoteOnCommit(Path tmp, StoredFile stored, String fileName) {
+    Staged staged = new Staged(stored, tmp, null, fileName);
+    AfterCommit.run(() -> promote(staged));
+  }
+
+  /**
+   * Move um arquivo já completo do staging para o local definitivo. Se outro upload gravou o
+   * mesmo conteúdo nesse meio tempo, o arquivo temporário é apenas descartado.
+   */
+  StoredFile promote(Path tmp, String hash) throws IOException {
+    Path target = resolveBlob(hash);
+
+    Files.createDirectories(target.getParent());
+
+    if (Files.exists(target)) {
+      Files.deleteIfExists(tmp);
+    } else {
+      try {
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (FileAlreadyExistsException e) {
+        // Outro upload promoveu o mesmo conteúdo entre a verificação e o rename
+        Files.deleteIfExists(tmp);
+      }
+    }
+
+    return new StoredFile(hash, target.toString(), Files.size(target));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    ioExecutor.shutdown();
+    scheduler.shutdownNow();
+  }
+
+  private void thumbnail(String hash, Path blob, String contentType, String fileName) {
+    if (ThumbnailService.isImage(contentType, fileName)) {
+      thumbnailService.submit(hash, blob);
+    }
+  }
+
+  Path resolveBlob(String hash) {
+    return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+  }
+
+  private static String digest(InputStream in) throws IOException {
+    MessageDigest digest = sha256();
+
+    try (DigestInputStream digestStream = new DigestInputStream(in, digest)) {
+      digestStream.transferTo(OutputStream.nullOutputStream());
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
 }
@@ -0,0 +1,214 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.dtos.response.MedicalRecordExportRow;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Exportação de prontuários em streaming. Os registros vêm de um scroll forward-only com fetch
+ * size fixo e o contexto de persistência é limpo a cada {@code export.clear-every} linhas, então
+ * o consumo de memória não depende do tamanho da exportação.
+ */
+@Log4j2
+@Service
+@Timed("clinic.service")
+public class MedicalRecordExportService {
+
+  public enum Format {
+    NDJSON,
+    CSV
+  }
+
+  private static final String CSV_HEADER =
+      "id,consultationDate,petId,petName,tutorId,veterinarianId,veterinarianName,diagnosis,"
+          + "prescription,notes";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectMapper objectMapper;
+  private final int fetchSize;
+  private final int clearEvery;
+
+  public MedicalRecordExportService(
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${export.fetch-size:500}") int fetchSize,
+      @Value("${export.clear-every:1000}") int clearEvery) {
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.objectMapper = objectMapper;
+    this.fetchSize = fetchSize;
+    this.clearEvery = clearEvery;
+  }
+
+  public void export(
+      LocalDate startDate,
+      LocalDate endDate,
+      String veterinarianId,
+      Format format,
+      OutputStream out)
+      throws IOException {
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    RowWriter rows = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+    long start = System.nanoTime();
+    long count;
+    try {
+      count =
+          readOnlyTransaction.execute(
+              status -> scroll(startDate, endDate, veterinarianId, rows, writer));
+    } catch (UncheckedIOException e) {
+      // Cliente desconectou no meio da exportação
+      throw e.getCause();
+    }
+    writer.flush();
+
+    log.info(
+        "Exported {} medical records as {} in {} ms",
+        count,
+        format,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private long scroll(
+      LocalDate startDate,
+      LocalDate endDate,
+      String veterinarianId,
+      RowWriter rows,
+      Writer writer) {
+
+    Session session = entityManager.unwrap(Session.class);
+
+    // join fetch: pet e veterinário (EAGER) viriam com um SELECT extra por linha
+    StringBuilder hql =
+        new StringBuilder(
+            "select r from MedicalRecordEntity r join fetch r.pet p join fetch r.veterinarian v"
+                + " where 1 = 1");
+    Map<String, Object> params = new HashMap<>();
+    if (startDate != null) {
+      hql.append(" and r.consultationDate >= :startDate");
+      params.put("startDate", startDate);
+    }
+    if (endDate != null) {
+      hql.append(" and r.consultationDate <= :endDate");
+      params.put("endDate", endDate);
+    }
+    if (veterinarianId != null && !veterinarianId.isBlank()) {
+      hql.append(" and v.id = :veterinarianId");
+      params.put("veterinarianId", veterinarianId);
+    }
+    hql.append(" order by r.consultationDate, r.id");
+
+    SelectionQuery<MedicalRecordEntity> query =
+        session
+            .createSelectionQuery(hql.toString(), MedicalRecordEntity.class)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true);
+    params.forEach(query::setParameter);
+
+    long count = 0;
+    try (ScrollableResults<MedicalRecordEntity> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+      while (results.next()) {
+        rows.write(toRow(results.get()));
+
+        if (++count % clearEvery == 0) {
+          session.clear();
+          writer.flush();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return count;
+  }
+
+  private static MedicalRecordExportRow toRow(MedicalRecordEntity record) {
+    return new MedicalRecordExportRow(
+        record.getId(),
+        record.getConsultationDate(),
+        record.getPet().getId(),
+        record.getPet().getName(),
+        // proxy LAZY: o id vem da FK, sem carregar o tutor
+        record.getPet().getTutor().getId(),
+        record.getVeterinarian().getId(),
+        record.getVeterinarian().getName(),
+        record.getDiagnosis(),
+        record.getPrescription(),
+        record.getNotes());
+  }
+
+  @FunctionalInterface
+  private interface RowWriter {
+    void write(MedicalRecordExportRow row) throws IOException;
+  }
+
+  private RowWriter ndjsonWriter(Writer writer) {
+    return row -> {
+      writer.write(objectMapper.writeValueAsString(row));
+      writer.write('\n');
+    };
+  }
+
+  private static RowWriter csvWriter(Writer writer) throws IOException {
+    writer.write(CSV_HEADER);
+    writer.write("\r\n");
+
+    return row -> {
+      writer.write(
+          Stream.of(
+                  row.id(),
+                  row.consultationDate(),
+                  row.petId(),
+                  row.petName(),
+                  row.tutorId(),
+                  row.veterinarianId(),
+                  row.veterinarianName(),
+                  row.diagnosis(),
+                  row.prescription(),
+                  row.notes())
+              .map(MedicalRecordExportService::csvField)
+              .collect(Collectors.joining(",")));
+      writer.write("\r\n");
+    };
+  }
+
+  private static String csvField(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0
+        && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0
+        && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+}
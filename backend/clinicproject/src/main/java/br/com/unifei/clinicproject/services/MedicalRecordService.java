@@ -1,7 +1,12 @@
 package br.com.unifei.clinicproject.services;
 
+import br.com.unifei.clinicproject.cache.CacheNames;
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
+import br.com.unifei.clinicproject.dtos.projection.MedicalRecordView;
 import br.com.unifei.clinicproject.dtos.request.MedicalRecordRequest;
 import br.com.unifei.clinicproject.dtos.request.MedicalRecordUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.MedicalRecordResponse;
 import br.com.unifei.clinicproject.entities.MedicalRecordAttachmentEntity;
 import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
@@ -9,50 +14,122 @@ import br.com.unifei.clinicproject.entities.PetEntity;
 import br.com.unifei.clinicproject.entities.UserEntity;
 import br.com.unifei.clinicproject.enums.UserRole;
 import br.com.unifei.clinicproject.mappers.MedicalMapper;
+import br.com.unifei.clinicproject.pagination.KeysetPaginator;
+import br.com.unifei.clinicproject.pagination.Projection;
+import br.com.unifei.clinicproject.pagination.SortKey;
+import br.com.unifei.clinicproject.repositories.MedicalRecordAttachmentRepository;
 import br.com.unifei.clinicproject.repositories.MedicalRecordRepository;
 import br.com.unifei.clinicproject.repositories.PetRepository;
 import br.com.unifei.clinicproject.repositories.UserRepository;
+import br.com.unifei.clinicproject.search.MedicalRecordIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.transaction.Transactional;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Log4j2
 @Service
+@Timed("clinic.service")
 @RequiredArgsConstructor
 public class MedicalRecordService {
 
+  private static final Projection<MedicalRecordEntity, MedicalRecordView> VIEW =
+      new Projection<>(
+          MedicalRecordView.class,
+          record -> {
+            Path<PetEntity> pet = record.get("pet");
+            Path<UserEntity> vet = record.get("veterinarian");
+            return List.of(
+                record.get("id"),
+                record.get("consultationDate"),
+                vet.get("id"),
+                vet.get("name"),
+                record.get("diagnosis"),
+                record.get("prescription"),
+                record.get("notes"),
+                pet.get("tutor").get("id"),
+                pet.get("id"));
+          });
+
   private final PetRepository petRepository;
   private final UserRepository userRepository;
   private final MedicalRecordRepository medicalRecordRepository;
+  private final MedicalRecordAttachmentRepository attachmentRepository;
   private final FileStorageService fileStorageService;
+  private final ThumbnailService thumbnailService;
+  private final KeysetPaginator paginator;
+  private final MedicalRecordIndex searchIndex;
+  private final CollectionVersions collectionVersions;
 
   private final MedicalMapper mapper;
 
-  public List<MedicalRecordResponse> search(
+  @Transactional(readOnly = true)
+  public CursorPageResponse<MedicalRecordResponse> search(
       String petId,
       LocalDate startDate,
       LocalDate endDate,
       String veterinarianId,
-      String diagnosisKeyword) {
+      String diagnosisKeyword,
+      String cursor,
+      Integer size) {
 
     var spec = filter(petId, startDate, endDate, veterinarianId, diagnosisKeyword);
 
-    List<MedicalRecordEntity> records =
-        medicalRecordRepository.findAll(
-            spec, Sort.by(Sort.Direction.DESC, "consultationDate") // mais recente → mais antigo
-            );
+    // mais recente → mais antigo
+    SortKey<MedicalRecordView, LocalDate> sortKey =
+        new SortKey<>(
+            "consultationDate",
+            Sort.Direction.DESC,
+            MedicalRecordView::consultationDate,
+            LocalDate::parse);
+
+    CursorPageResponse<MedicalRecordView> page =
+        paginator.fetch(
+            MedicalRecordEntity.class,
+            spec,
+            VIEW,
+            sortKey,
+            MedicalRecordView::id,
+            cursor,
+            size);
+
+    return new CursorPageResponse<>(withAttachments(page.getItems()), page.getNext());
+  }
+
+  // Anexos da página inteira numa segunda consulta, agrupados por prontuário
+  private List<MedicalRecordResponse> withAttachments(List<MedicalRecordView> records) {
+    if (records.isEmpty()) return List.of();
 
-    return mapper.toResponseDto(records);
+    Map<String, List<AttachmentView>> byRecord =
+        attachmentRepository
+            .findViewsByMedicalRecordIdIn(records.stream().map(MedicalRecordView::id).toList())
+            .stream()
+            .collect(Collectors.groupingBy(AttachmentView::medicalRecordId));
+
+    return records.stream()
+        .map(record -> mapper.toResponseDto(record, byRecord.getOrDefault(record.id(), List.of())))
+        .toList();
   }
 
   private Specification<MedicalRecordEntity> filter(
@@ -61,6 +138,18 @@ public class MedicalRecordService {
       LocalDate endDate,
       String veterinarianId,
       String diagnosisKeyword) {
+
+    // Diagnóstico (keyword): resolvido pelo índice invertido; null → cai no LIKE '%kw%'
+    List<String> keywordMatches =
+        (diagnosisKeyword == null || diagnosisKeyword.isBlank())
+            ? null
+            : searchIndex.search(
+                diagnosisKeyword,
+                MedicalRecordIndex.Operator.AND,
+                petId,
+                Set.of(MedicalRecordIndex.Field.DIAGNOSIS),
+                Integer.MAX_VALUE);
+
     return (root, query, cb) -> {
       List<Predicate> predicates = new ArrayList<>();
 
@@ -81,8 +170,10 @@ public class MedicalRecordService {
         predicates.add(cb.equal(root.get("veterinarian").get("id"), veterinarianId));
       }
 
-      // Diagnóstico (keyword, LIKE)
-      if (diagnosisKeyword != null && !diagnosisKeyword.isBlank()) {
+      if (keywordMatches != null) {
+        predicates.add(
+            keywordMatches.isEmpty() ? cb.disjunction() : root.get("id").in(keywordMatches));
+      } else if (diagnosisKeyword != null && !diagnosisKeyword.isBlank()) {
         predicates.add(
             cb.like(cb.lower(root.get("diagnosis")), "%" + diagnosisKeyword.toLowerCase() + "%"));
       }
@@ -91,6 +182,7 @@ public class MedicalRecordService {
     };
   }
 
+  @Transactional
   public void createRecord(MedicalRecordRequest dto, List<MultipartFile> attachments)
       throws IllegalAccessException {
 
@@ -118,25 +210,17 @@ public class MedicalRecordService {
             .notes(dto.getNotes())
             .build();
 
-    if (attachments != null && !attachments.isEmpty()) {
-      for (MultipartFile file : attachments) {
-        String savedPath = fileStorageService.saveFile(file);
-
-        MedicalRecordAttachmentEntity attachment = new MedicalRecordAttachmentEntity();
-        attachment.setFileName(file.getOriginalFilename());
-        attachment.setFilePath(savedPath);
-        attachment.setMedicalRecord(record);
-
-        record.getAttachments().add(attachment);
-      }
-    }
+    addAttachments(record, attachments);
 
     medicalRecordRepository.save(record);
+    searchIndex.index(record);
+    record.getAttachments().forEach(this::recordThumbnail);
 
     log.info("Medical record saved successfully!");
   }
 
   @Transactional
+  @CacheEvict(cacheNames = CacheNames.MEDICAL_RECORDS, key = "#id")
   public void updateRecord(
       String id, MedicalRecordUpdateRequest dto, List<MultipartFile> newFiles, String loggedVetId)
       throws Exception {
@@ -166,32 +250,155 @@ public class MedicalRecordService {
     }
 
     // Adiciona novos anexos (sem excluir antigos!)
-    if (newFiles != null && !newFiles.isEmpty()) {
-      for (MultipartFile file : newFiles) {
-        String savedPath = fileStorageService.saveFile(file);
+    addAttachments(entity, newFiles);
+
+    // Registro de auditoria da edição
+    entity.setLastModifiedDate(OffsetDateTime.now());
+    entity.setLastModifiedBy(loggedVetId);
+
+    medicalRecordRepository.save(entity);
+    searchIndex.index(entity);
+    entity.getAttachments().forEach(this::recordThumbnail);
+  }
 
-        MedicalRecordAttachmentEntity attachment = new MedicalRecordAttachmentEntity();
-        attachment.setFileName(file.getOriginalFilename());
-        attachment.setFilePath(savedPath);
-        attachment.setMedicalRecord(entity);
+  @Transactional
+  @CacheEvict(cacheNames = CacheNames.MEDICAL_RECORDS, key = "#id")
+  public void addAttachment(
+      String id, String fileName, FileStorageService.StoredFile stored, String loggedVetId) {
 
-        entity.getAttachments().add(attachment);
+    MedicalRecordEntity entity =
+        medicalRecordRepository
+            .findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Record not found with id: " + id));
+
+    if (loggedVetId != null) {
+      UserEntity vet =
+          userRepository
+              .findById(loggedVetId)
+              .orElseThrow(() -> new IllegalArgumentException("Veterinarian not found"));
+
+      if (vet.getRole() != UserRole.VETERINARIO) {
+        throw new IllegalArgumentException("Only veterinarians can attach files to records");
       }
     }
 
-    // Registro de auditoria da edição
+    MedicalRecordAttachmentEntity attachment = toAttachment(fileName, stored, entity);
+    entity.getAttachments().add(attachment);
+
     entity.setLastModifiedDate(OffsetDateTime.now());
     entity.setLastModifiedBy(loggedVetId);
 
     medicalRecordRepository.save(entity);
+    recordThumbnail(attachment);
   }
 
+  @Transactional(readOnly = true)
+  public AttachmentView findAttachment(String attachmentId) {
+    return attachmentRepository
+        .findViewById(attachmentId)
+        .orElseThrow(
+            () -> new EntityNotFoundException("Attachment not found with id: " + attachmentId));
+  }
+
+  /**
+   * Caminho da miniatura de um anexo de imagem. Vazio enquanto ela não existe; nesse caso a
+   * geração é (re)agendada, caso a fila estivesse cheia no upload.
+   */
+  @Transactional(readOnly = true)
+  public Optional<String> findThumbnail(String attachmentId) {
+    MedicalRecordAttachmentEntity attachment =
+        attachmentRepository
+            .findById(attachmentId)
+            .orElseThrow(
+                () -> new EntityNotFoundException("Attachment not found with id: " + attachmentId));
+
+    String thumbnail = attachment.getThumbnailPath();
+    if (thumbnail != null && Files.exists(Paths.get(thumbnail))) {
+      return Optional.of(thumbnail);
+    }
+
+    // Anexos anteriores ao armazenamento por hash não têm chave para a miniatura
+    if (attachment.getContentHash() != null
+        && ThumbnailService.isImage(null, attachment.getFileName())) {
+      thumbnailService.submit(attachment.getContentHash(), Paths.get(attachment.getFilePath()));
+      recordThumbnail(attachment);
+    }
+
+    return Optional.empty();
+  }
+
+  // Novos anexos de imagem: o caminho da miniatura é gravado quando o pool terminar
+  private void recordThumbnail(MedicalRecordAttachmentEntity attachment) {
+    if (attachment.getThumbnailPath() == null && attachment.getContentHash() != null) {
+      thumbnailService.recordWhenReady(
+          attachment.getContentHash(), Paths.get(attachment.getFilePath()));
+    }
+  }
+
+  // Todos os arquivos são gravados em paralelo; a promoção para o armazenamento espera o commit
+  private void addAttachments(MedicalRecordEntity record, List<MultipartFile> files) {
+    if (files == null || files.isEmpty()) return;
+
+    List<FileStorageService.StoredFile> stored = fileStorageService.saveFiles(files);
+
+    for (int i = 0; i < files.size(); i++) {
+      if (stored.get(i) == null) continue;
+
+      String fileName = files.get(i).getOriginalFilename();
+      record.getAttachments().add(toAttachment(fileName, stored.get(i), record));
+    }
+  }
+
+  private static MedicalRecordAttachmentEntity toAttachment(
+      String fileName, FileStorageService.StoredFile stored, MedicalRecordEntity record) {
+
+    MedicalRecordAttachmentEntity attachment = new MedicalRecordAttachmentEntity();
+    attachment.setFileName(fileName);
+    attachment.setFilePath(stored.path());
+    attachment.setContentHash(stored.hash());
+    attachment.setFileSize(stored.size());
+    attachment.setMedicalRecord(record);
+
+    return attachment;
+  }
+
+  @Transactional(readOnly = true)
+  public List<MedicalRecordResponse> fullTextSearch(
+      String query, MedicalRecordIndex.Operator operator, String petId, int limit) {
+
+    List<String> ids =
+        searchIndex.search(query, operator, petId, Set.of(), paginator.resolveSize(limit));
+    // Busca ranqueada não tem equivalente em LIKE: sem índice (ou sem termos) não há resultado
+    if (ids == null || ids.isEmpty()) return List.of();
+
+    Map<String, MedicalRecordView> byId =
+        medicalRecordRepository.findViewsByIdIn(ids).stream()
+            .collect(Collectors.toMap(MedicalRecordView::id, Function.identity()));
+
+    // Mantém a ordem de relevância devolvida pelo índice
+    List<MedicalRecordView> ranked =
+        ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+    return withAttachments(ranked);
+  }
+
+  /** ETag das buscas: anexos, nome do veterinário e tutor do pet também estão na resposta. */
+  public String listingVersion() {
+    return collectionVersions.etag(
+        MedicalRecordEntity.class,
+        MedicalRecordAttachmentEntity.class,
+        UserEntity.class,
+        PetEntity.class);
+  }
+
+  @Cacheable(cacheNames = CacheNames.MEDICAL_RECORDS, sync = true)
+  @Transactional(readOnly = true)
   public MedicalRecordResponse findById(String id) {
-    MedicalRecordEntity record =
+    MedicalRecordView record =
         medicalRecordRepository
-            .findById(id)
+            .findViewById(id)
             .orElseThrow(() -> new EntityNotFoundException("Record not found with id: " + id));
 
-    return mapper.toResponseDto(record);
+    return withAttachments(List.of(record)).get(0);
   }
 }
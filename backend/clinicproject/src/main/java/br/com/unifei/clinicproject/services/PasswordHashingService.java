@@ -0,0 +1,182 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hash de senhas (BCrypt) num pool dedicado e limitado. Quando pool e fila estão cheios a
+ * requisição é recusada na hora com 503, em vez de ocupar mais threads do Tomcat e fazer as
+ * leituras esperarem atrás dos cadastros.
+ */
+@Log4j2
+@Service
+public class PasswordHashingService {
+
+  // Mesmo formato aceito pelo BCryptPasswordEncoder
+  private static final Pattern BCRYPT_HASH =
+      Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+  private final BCryptPasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+  private final Duration retryAfter;
+  private final int queueCapacity;
+
+  private final LongAdder hashed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  public PasswordHashingService(
+      @Value("${security.password.bcrypt-strength:10}") int strength,
+      @Value("${security.password.hashing-threads:0}") int threads,
+      @Value("${security.password.hashing-queue-capacity:16}") int queueCapacity,
+      @Value("${security.password.hashing-timeout:5s}") Duration timeout,
+      @Value("${security.password.retry-after:2s}") Duration retryAfter) {
+
+    // 0 = metade dos núcleos, deixando CPU livre para as demais requisições
+    if (threads <= 0) {
+      threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    this.encoder = new BCryptPasswordEncoder(strength);
+    this.timeout = timeout;
+    this.retryAfter = retryAfter;
+    this.queueCapacity = queueCapacity;
+
+    AtomicInteger counter = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    log.info(
+        "Password hashing pool: strength={}, threads={}, queue={}", strength, threads, queueCapacity);
+  }
+
+  public String encode(String rawPassword) {
+    Future<String> future;
+
+    try {
+      future = executor.submit(() -> timedEncode(rawPassword));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw overloaded();
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejected.increment();
+      throw overloaded();
+
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing password", e);
+
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Could not hash password", e.getCause());
+    }
+  }
+
+  /**
+   * Hash em lote (importações). Usa o pool só enquanto metade da fila estiver livre; fora isso
+   * calcula na própria thread chamadora, para não deixar os cadastros online sem vaga.
+   */
+  public List<String> encodeAll(List<String> rawPasswords) {
+    List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+
+    for (String raw : rawPasswords) {
+      Future<String> future = null;
+      if (executor.getQueue().remainingCapacity() > queueCapacity / 2) {
+        try {
+          future = executor.submit(() -> timedEncode(raw));
+        } catch (RejectedExecutionException ignored) {
+          // pool cheio: segue na thread chamadora
+        }
+      }
+      futures.add(future != null ? future : CompletableFuture.completedFuture(timedEncode(raw)));
+    }
+
+    List<String> hashes = new ArrayList<>(futures.size());
+    try {
+      for (Future<String> future : futures) {
+        hashes.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(f -> f.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing passwords", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Could not hash password", e.getCause());
+    }
+    return hashes;
+  }
+
+  /** Se o valor já é um hash BCrypt (ex.: senha migrada de outro sistema). */
+  public static boolean isEncoded(String value) {
+    return value != null && BCRYPT_HASH.matcher(value).matches();
+  }
+
+  public Stats stats() {
+    long count = hashed.sum();
+    return new Stats(
+        count,
+        rejected.sum(),
+        executor.getActiveCount(),
+        executor.getQueue().size(),
+        count == 0 ? 0 : totalNanos.sum() / count / 1_000_000.0);
+  }
+
+  public record Stats(long hashed, long rejected, int active, int queued, double averageMillis) {}
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private String timedEncode(String rawPassword) {
+    long start = System.nanoTime();
+    try {
+      return encoder.encode(rawPassword);
+    } finally {
+      totalNanos.add(System.nanoTime() - start);
+      hashed.increment();
+    }
+  }
+
+  private ServiceOverloadedException overloaded() {
+    log.warn("Password hashing pool saturated: {}", stats());
+    return new ServiceOverloadedException(
+        "Servidor ocupado processando cadastros. Tente novamente em instantes.", retryAfter);
+  }
+}
@@ -1,30 +1,76 @@
 package br.com.unifei.clinicproject.services;
 
+import br.com.unifei.clinicproject.cache.CacheNames;
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.dtos.projection.PetView;
 import br.com.unifei.clinicproject.dtos.request.PetCreateRequest;
 import br.com.unifei.clinicproject.dtos.request.PetUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.PetResponse;
-import br.com.unifei.clinicproject.dtos.response.TutorResponse;
 import br.com.unifei.clinicproject.entities.PetEntity;
 import br.com.unifei.clinicproject.entities.TutorEntity;
 import br.com.unifei.clinicproject.mappers.PetMapper;
+import br.com.unifei.clinicproject.pagination.KeysetPaginator;
+import br.com.unifei.clinicproject.pagination.Projection;
+import br.com.unifei.clinicproject.pagination.SortKey;
 import br.com.unifei.clinicproject.repositories.PetRepository;
 import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.search.NameSearchIndex;
+import br.com.unifei.clinicproject.search.PortugueseAnalyzer;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("clinic.service")
 @RequiredArgsConstructor
 public class PetService {
 
+  private static final Projection<PetEntity, PetView> VIEW =
+      new Projection<>(
+          PetView.class,
+          pet -> {
+            // O tutor é obrigatório, então o left join não muda o resultado; mas o H2 não reordena
+            // outer joins e PETS fica como primeira tabela, podendo usar IDX_PETS_NAME na ordenação
+            Join<PetEntity, TutorEntity> tutor = pet.join("tutor", JoinType.LEFT);
+            return List.of(
+                pet.get("id"),
+                pet.get("name"),
+                pet.get("species"),
+                pet.get("breed"),
+                pet.get("birthDate"),
+                tutor.get("name"),
+                tutor.get("cpf"),
+                pet.get("weight"),
+                pet.get("notes"),
+                pet.get("sex"),
+                pet.get("color"),
+                pet.get("version"),
+                tutor.get("version"));
+          });
+
   private final PetRepository petRepository;
   private final TutorRepository userRepository;
   private final PetMapper petMapper;
+  private final KeysetPaginator paginator;
+  private final NameSearchIndex nameSearchIndex;
+  private final CollectionVersions collectionVersions;
 
   public void createPet(PetCreateRequest request, String tutorId) {
     TutorEntity owner =
@@ -46,44 +92,91 @@ public class PetService {
             .build();
 
     petRepository.save(pet);
+    nameSearchIndex.indexPet(pet);
   }
 
-  public List<PetResponse> findPets(
-      String name, String species, String breed, String ownerName, String ownerCpf, String sortBy) {
+  @Transactional(readOnly = true)
+  public CursorPageResponse<PetResponse> findPets(
+      String name,
+      String species,
+      String breed,
+      String ownerName,
+      String ownerCpf,
+      String sortBy,
+      boolean fuzzy,
+      String cursor,
+      Integer size) {
+
+    // Filtros por substring respondidos pelo índice de trigramas (null → cai no LIKE sem acentos,
+    // que não tolera erros de digitação: fuzzy só vale com o índice)
+    Set<String> nameMatches =
+        (name != null && !name.isBlank()) ? nameSearchIndex.petsByName(name, fuzzy) : null;
+    Set<String> breedMatches =
+        (breed != null && !breed.isBlank()) ? nameSearchIndex.petsByBreed(breed, fuzzy) : null;
+    Set<String> ownerMatches =
+        (ownerName != null && !ownerName.isBlank())
+            ? nameSearchIndex.tutorsByName(ownerName, fuzzy)
+            : null;
 
     Specification<PetEntity> spec =
         (root, query, cb) -> {
           List<Predicate> predicates = new ArrayList<>();
 
-          if (name != null && !name.isBlank())
-            predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+          if (nameMatches != null)
+            predicates.add(
+                nameMatches.isEmpty() ? cb.disjunction() : root.get("id").in(nameMatches));
+          else if (name != null && !name.isBlank())
+            predicates.add(cb.like(root.get("nameKey"), containing(name)));
 
           if (species != null && !species.isBlank())
-            predicates.add(cb.equal(cb.lower(root.get("species")), species.toLowerCase()));
+            predicates.add(cb.equal(root.get("speciesKey"), species.toLowerCase()));
 
-          if (breed != null && !breed.isBlank())
-            predicates.add(cb.like(cb.lower(root.get("breed")), "%" + breed.toLowerCase() + "%"));
+          if (breedMatches != null)
+            predicates.add(
+                breedMatches.isEmpty() ? cb.disjunction() : root.get("id").in(breedMatches));
+          else if (breed != null && !breed.isBlank())
+            predicates.add(cb.like(root.get("breedKey"), containing(breed)));
 
-          if (ownerName != null && !ownerName.isBlank())
+          // Por id do tutor, sem join
+          if (ownerMatches != null)
             predicates.add(
-                cb.like(
-                    cb.lower(root.join("tutor").get("name")), "%" + ownerName.toLowerCase() + "%"));
+                ownerMatches.isEmpty()
+                    ? cb.disjunction()
+                    : root.get("tutor").get("id").in(ownerMatches));
+          else if (ownerName != null && !ownerName.isBlank())
+            predicates.add(
+                cb.like(KeysetPaginator.resolve(root, "tutor.nameKey"), containing(ownerName)));
 
-          if (ownerCpf != null && !ownerCpf.isBlank())
-            predicates.add(cb.equal(root.join("tutor").get("cpf"), ownerCpf));
+          // Também por id do tutor: o CPF sai do índice único e os pets de IDX_PETS_TUTOR_NAME
+          if (ownerCpf != null && !ownerCpf.isBlank()) {
+            Subquery<String> owner = query.subquery(String.class);
+            Root<TutorEntity> tutor = owner.from(TutorEntity.class);
+            owner.select(tutor.get("id")).where(cb.equal(tutor.get("cpf"), ownerCpf));
+            predicates.add(cb.equal(root.get("tutor").get("id"), owner));
+          }
 
           return cb.and(predicates.toArray(new Predicate[0]));
         };
 
-    Sort sort =
+    SortKey<PetView, String> sortKey =
         switch (sortBy == null ? "name" : sortBy.toLowerCase()) {
-          case "owner" -> Sort.by("owner.name").ascending();
-          default -> Sort.by("name").ascending();
+          case "owner" ->
+              new SortKey<>(
+                  "tutor.name", Sort.Direction.ASC, PetView::tutorName, Function.identity());
+          default -> new SortKey<>("name", Sort.Direction.ASC, PetView::name, Function.identity());
         };
 
-    return petRepository.findAll(spec, sort).stream().map(petMapper::toResponseDto).toList();
+    return paginator
+        .fetch(PetEntity.class, spec, VIEW, sortKey, PetView::id, cursor, size)
+        .map(petMapper::toResponseDto);
   }
 
+  // Padrão do LIKE sobre NAME_KEY/BREED_KEY: dobrado como as colunas (minúsculas, sem acentos)
+  private static String containing(String text) {
+    return "%" + PortugueseAnalyzer.fold(text) + "%";
+  }
+
+  @CacheEvict(cacheNames = CacheNames.PETS, key = "#id")
   public PetResponse updatePet(String id, PetUpdateRequest dto) {
     PetEntity pet =
         petRepository
@@ -100,6 +193,7 @@ public class PetService {
     return petMapper.toResponseDto(saved);
   }
 
+  @CacheEvict(cacheNames = CacheNames.PETS, key = "#id")
   public void deletePet(String id) {
     // Only ADMINISTRATOR can delete
     //        if (!"ADMINISTRADOR".equalsIgnoreCase(requesterRole)) {
@@ -112,14 +206,24 @@ public class PetService {
             .orElseThrow(() -> new EntityNotFoundException("Pet not found with id: " + id));
 
     petRepository.delete(pet);
+    nameSearchIndex.removePet(id);
+  }
+
+  /** ETag da listagem: muda com qualquer escrita em pets ou tutores, e com a data (idade). */
+  public String listingVersion() {
+    return collectionVersions.etag(PetEntity.class, TutorEntity.class)
+        + "."
+        + LocalDate.now().toEpochDay();
   }
 
+  @Cacheable(cacheNames = CacheNames.PETS, sync = true)
+  @Transactional(readOnly = true)
   public PetResponse findById(String id) {
-    PetEntity user =
+    PetView pet =
         petRepository
-            .findById(id)
+            .findViewById(id)
             .orElseThrow(() -> new EntityNotFoundException("Pet not found with id: " + id));
 
-    return petMapper.toResponseDto(user);
+    return petMapper.toResponseDto(pet);
   }
 }
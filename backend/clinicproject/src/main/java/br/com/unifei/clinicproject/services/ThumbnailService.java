@@ -0,0 +1,220 @@
+package br.com.unifei.clinicproject.services;
+
+import br.com.unifei.clinicproject.repositories.MedicalRecordAttachmentRepository;
+import br.com.unifei.clinicproject.tx.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Miniaturas JPEG dos anexos de imagem, geradas só com ImageIO num pool pequeno e limitado, fora
+ * da thread do upload. A miniatura fica ao lado do blob original ({@code <hash>.thumb.jpg}); como
+ * o armazenamento é por conteúdo, cada imagem é reduzida uma única vez. Com a fila cheia o pedido
+ * é descartado: o endpoint da miniatura volta a pedir quando ela for solicitada.
+ */
+@Log4j2
+@Service
+public class ThumbnailService {
+
+  private static final String SUFFIX = ".thumb.jpg";
+
+  private static final Set<String> IMAGE_EXTENSIONS =
+      Set.of("jpg", "jpeg", "png", "gif", "bmp", "wbmp");
+
+  private final MedicalRecordAttachmentRepository attachmentRepository;
+  private final ThreadPoolExecutor executor;
+  private final int size;
+  private final float quality;
+
+  // Um job por blob, mesmo que o mesmo arquivo chegue em vários uploads ao mesmo tempo
+  private final Map<String, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+  public ThumbnailService(
+      MedicalRecordAttachmentRepository attachmentRepository,
+      @Value("${thumbnails.size:256}") int size,
+      @Value("${thumbnails.quality:0.8}") float quality,
+      @Value("${thumbnails.threads:1}") int threads,
+      @Value("${thumbnails.queue-capacity:64}") int queueCapacity) {
+    this.attachmentRepository = attachmentRepository;
+    this.size = size;
+    this.quality = quality;
+
+    AtomicInteger counter = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public static Path thumbnailOf(Path original) {
+    return original.resolveSibling(original.getFileName() + SUFFIX);
+  }
+
+  /** Pela extensão ou pelo Content-Type; quem decide de fato é o leitor do ImageIO. */
+  public static boolean isImage(String contentType, String fileName) {
+    if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("image/")) {
+      return true;
+    }
+    if (fileName == null || fileName.lastIndexOf('.') < 0) {
+      return false;
+    }
+    String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+    return IMAGE_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT));
+  }
+
+  /** Agenda a miniatura de um blob recém-gravado, sem bloquear quem chamou. */
+  public void submit(String hash, Path original) {
+    if (Files.exists(thumbnailOf(original))) {
+      return;
+    }
+
+    pending.computeIfAbsent(
+        hash,
+        key -> {
+          CompletableFuture<Path> job = new CompletableFuture<>();
+          try {
+            executor.execute(() -> generate(key, original, job));
+          } catch (RejectedExecutionException e) {
+            log.warn("Thumbnail queue full, skipping {}", key);
+            return null;
+          }
+          return job;
+        });
+  }
+
+  /**
+   * Grava o caminho da miniatura nos anexos do blob assim que ela existir. Só depois do commit:
+   * antes disso o UPDATE não enxergaria os anexos recém-inseridos.
+   */
+  public void recordWhenReady(String hash, Path original) {
+    AfterCommit.run(
+        () -> {
+          CompletableFuture<Path> job = pending.get(hash);
+          if (job != null) {
+            job.thenAccept(thumbnail -> record(hash, thumbnail));
+          } else if (Files.exists(thumbnailOf(original))) {
+            record(hash, thumbnailOf(original));
+          }
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void record(String hash, Path thumbnail) {
+    if (thumbnail != null) {
+      attachmentRepository.setThumbnailPath(hash, thumbnail.toString());
+    }
+  }
+
+  private void generate(String hash, Path original, CompletableFuture<Path> job) {
+    try {
+      job.complete(write(original));
+    } catch (Exception e) {
+      log.warn("Could not generate thumbnail for {}", hash, e);
+      job.complete(null);
+    } finally {
+      pending.remove(hash);
+    }
+  }
+
+  /** {@code null} quando o arquivo não é uma imagem que o ImageIO saiba ler. */
+  private Path write(Path original) throws IOException {
+    BufferedImage source;
+
+    try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+      if (!readers.hasNext()) {
+        return null;
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in, true, true);
+
+        // Decodifica já subamostrado: uma foto de 24 MP não precisa ir inteira para a memória
+        int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / (2 * size));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        source = reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+
+    double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+    int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+    int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+    // JPEG não tem canal alfa: fundo branco para PNG/GIF transparentes
+    BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = thumbnail.createGraphics();
+    try {
+      g.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+    } finally {
+      g.dispose();
+    }
+
+    Path target = thumbnailOf(original);
+    Path tmp = Files.createTempFile(target.getParent(), "thumb-", ".tmp");
+    try {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        writer.setOutput(out);
+        writer.write(null, new IIOImage(thumbnail, null, null), param);
+      } finally {
+        writer.dispose();
+      }
+      Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+
+    return target;
+  }
+}
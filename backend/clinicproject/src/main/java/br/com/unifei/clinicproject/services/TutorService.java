@@ -1,67 +1,130 @@
 package br.com.unifei.clinicproject.services;
 
+import br.com.unifei.clinicproject.cache.CacheNames;
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.dtos.projection.TutorView;
 import br.com.unifei.clinicproject.dtos.request.TutorFilterRequest;
 import br.com.unifei.clinicproject.dtos.request.TutorRequest;
 import br.com.unifei.clinicproject.dtos.request.TutorUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.TutorResponse;
 import br.com.unifei.clinicproject.entities.TutorEntity;
 import br.com.unifei.clinicproject.entities.UserEntity;
 import br.com.unifei.clinicproject.enums.UserRole;
 import br.com.unifei.clinicproject.mappers.TutorMapper;
+import br.com.unifei.clinicproject.pagination.KeysetPaginator;
+import br.com.unifei.clinicproject.pagination.Projection;
+import br.com.unifei.clinicproject.pagination.SortKey;
 import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository.TutorKeys;
+import br.com.unifei.clinicproject.search.NameSearchIndex;
+import br.com.unifei.clinicproject.search.PortugueseAnalyzer;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter.KeySpace;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("clinic.service")
 @RequiredArgsConstructor
 public class TutorService {
 
+  private static final Projection<TutorEntity, TutorView> VIEW =
+      new Projection<>(
+          TutorView.class,
+          tutor ->
+              List.of(
+                  tutor.get("id"),
+                  tutor.get("name"),
+                  tutor.get("cpf"),
+                  tutor.get("email"),
+                  tutor.get("phone"),
+                  tutor.get("address"),
+                  tutor.get("createdDate"),
+                  tutor.get("version")));
+
   private final TutorMapper mapper;
 
   private final TutorRepository repository;
 
-  private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+  private final KeysetPaginator paginator;
 
-  @Transactional
+  private final NameSearchIndex nameSearchIndex;
+
+  private final PasswordHashingService passwordHashingService;
+
+  private final UniqueKeyFilter uniqueKeys;
+  private final CollectionVersions collectionVersions;
+
+  // Sem @Transactional: a transação seguraria uma conexão do pool durante o hash da senha
   public void registerTutor(TutorRequest request) {
 
-    repository
-        .findByCpf(request.cpf())
-        .ifPresent(
-            u -> {
-              throw new IllegalArgumentException("CPF já cadastrado.");
-            });
+    // Chaves novas (o caso comum) nem chegam ao banco; as suspeitas, numa consulta só
+    if (uniqueKeys.mightExist(KeySpace.TUTOR_CPF, request.cpf())
+        || uniqueKeys.mightExist(KeySpace.TUTOR_EMAIL, request.email())) {
+
+      List<TutorKeys> existing =
+          repository.findKeysByCpfInOrEmailIn(List.of(request.cpf()), List.of(request.email()));
 
-    repository
-        .findByEmail(request.email())
-        .ifPresent(
-            u -> {
-              throw new IllegalArgumentException("E-mail já cadastrado.");
-            });
+      if (existing.stream().anyMatch(k -> request.cpf().equals(k.getCpf()))) {
+        throw new IllegalArgumentException("CPF já cadastrado.");
+      }
+      if (existing.stream().anyMatch(k -> request.email().equals(k.getEmail()))) {
+        throw new IllegalArgumentException("E-mail já cadastrado.");
+      }
+    }
 
     TutorEntity user = mapper.toEntity(request);
-    user.setPassword(encoder.encode(request.password()));
+    user.setPassword(passwordHashingService.encode(request.password()));
 
-    repository.save(user);
+    try {
+      repository.save(user);
+    } catch (DataIntegrityViolationException e) {
+      // Cadastro concorrente com a mesma chave: a constraint única do banco é a última barreira
+      throw new IllegalArgumentException("CPF ou e-mail já cadastrado.", e);
+    }
+
+    uniqueKeys.add(KeySpace.TUTOR_CPF, user.getCpf());
+    uniqueKeys.add(KeySpace.TUTOR_EMAIL, user.getEmail());
+    nameSearchIndex.indexTutor(user);
   }
 
-  public List<TutorResponse> findByFilters(TutorFilterRequest filter, String orderBy) {
+  @Transactional(readOnly = true)
+  public CursorPageResponse<TutorResponse> findByFilters(
+      TutorFilterRequest filter, String orderBy, boolean fuzzy, String cursor, Integer size) {
+
+    // Substring do nome respondida pelo índice de trigramas (null → cai no LIKE sem acentos, que
+    // não tolera erros de digitação: fuzzy só vale com o índice)
+    Set<String> nameMatches =
+        (filter.getName() != null && !filter.getName().isBlank())
+            ? nameSearchIndex.tutorsByName(filter.getName(), fuzzy)
+            : null;
+
     Specification<TutorEntity> spec =
         (root, query, cb) -> {
           List<Predicate> predicates = new ArrayList<>();
 
-          if (filter.getName() != null && !filter.getName().isBlank()) {
+          if (nameMatches != null) {
+            predicates.add(
+                nameMatches.isEmpty() ? cb.disjunction() : root.get("id").in(nameMatches));
+          } else if (filter.getName() != null && !filter.getName().isBlank()) {
             predicates.add(
-                cb.like(cb.lower(root.get("name")), "%" + filter.getName().toLowerCase() + "%"));
+                cb.like(
+                    root.get("nameKey"), "%" + PortugueseAnalyzer.fold(filter.getName()) + "%"));
           }
 
           if (filter.getCpf() != null && !filter.getCpf().isBlank()) {
@@ -80,38 +143,53 @@ public class TutorService {
         };
 
     // todo testar
-    Sort sort =
+    SortKey<TutorView, ?> sortKey =
         switch (orderBy) {
-          case "name" -> Sort.by("name").ascending();
-          default -> Sort.by("createdDate").descending();
+          case "name" ->
+              new SortKey<>("name", Sort.Direction.ASC, TutorView::name, Function.identity());
+          default ->
+              new SortKey<>(
+                  "createdDate",
+                  Sort.Direction.DESC,
+                  TutorView::createdDate,
+                  OffsetDateTime::parse);
         };
 
-    return repository.findAll(spec, sort).stream().map(mapper::toResponseDTO).toList();
+    return paginator
+        .fetch(TutorEntity.class, spec, VIEW, sortKey, TutorView::id, cursor, size)
+        .map(mapper::toResponseDTO);
   }
 
+  @CacheEvict(cacheNames = CacheNames.TUTORS, key = "#userId")
   public TutorEntity updateTutor(String userId, TutorUpdateRequest dto, String adminId) {
     TutorEntity user =
         repository
             .findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
 
-    if (dto.getEmail() != null && repository.existsByEmailAndIdNot(dto.getEmail(), userId)) {
+    if (dto.getEmail() != null
+        && uniqueKeys.mightExist(KeySpace.TUTOR_EMAIL, dto.getEmail())
+        && repository.existsByEmailAndIdNot(dto.getEmail(), userId)) {
       throw new IllegalArgumentException("E-mail já está em uso por outro funcionário");
     }
 
+    String previousEmail = user.getEmail();
     mapper.updateEntityFromDto(dto, user);
 
     if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
-      user.setPassword(encoder.encode(dto.getPassword()));
+      user.setPassword(passwordHashingService.encode(dto.getPassword()));
     }
 
     user.setLastModifiedDate(OffsetDateTime.now());
     user.setLastModifiedBy(adminId);
 
-    return repository.save(user);
+    TutorEntity saved = repository.save(user);
+    uniqueKeys.replace(KeySpace.TUTOR_EMAIL, previousEmail, saved.getEmail());
+    return saved;
   }
 
   @Transactional
+  @CacheEvict(cacheNames = CacheNames.TUTORS, key = "#userId")
   public void deleteTutor(String userId) {
     TutorEntity user =
         repository
@@ -119,6 +197,9 @@ public class TutorService {
             .orElseThrow(() -> new RuntimeException("Usuário não encontrado."));
 
     repository.delete(user);
+    nameSearchIndex.removeTutor(userId);
+    uniqueKeys.remove(KeySpace.TUTOR_CPF, user.getCpf());
+    uniqueKeys.remove(KeySpace.TUTOR_EMAIL, user.getEmail());
 
     // todo RELEASE 03
     //      boolean temAgendamentosFuturos = agendamentoRepository
@@ -135,10 +216,16 @@ public class TutorService {
     //      }
   }
 
+  public String listingVersion() {
+    return collectionVersions.etag(TutorEntity.class);
+  }
+
+  @Cacheable(cacheNames = CacheNames.TUTORS, sync = true)
+  @Transactional(readOnly = true)
   public TutorResponse findById(String id) {
-    TutorEntity user =
+    TutorView user =
         repository
-            .findById(id)
+            .findViewById(id)
             .orElseThrow(() -> new EntityNotFoundException("Tutor not found with id: " + id));
 
     return mapper.toResponseDTO(user);
@@ -1,74 +1,136 @@
 package br.com.unifei.clinicproject.services;
 
+import br.com.unifei.clinicproject.cache.CacheNames;
+import br.com.unifei.clinicproject.cache.CollectionVersions;
+import br.com.unifei.clinicproject.dtos.projection.UserView;
 import br.com.unifei.clinicproject.dtos.request.UserFilterRequest;
 import br.com.unifei.clinicproject.dtos.request.UserRequest;
 import br.com.unifei.clinicproject.dtos.request.UserUpdateRequest;
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
 import br.com.unifei.clinicproject.dtos.response.UserResponse;
 import br.com.unifei.clinicproject.entities.UserEntity;
 import br.com.unifei.clinicproject.enums.UserRole;
 import br.com.unifei.clinicproject.mappers.UserMapper;
+import br.com.unifei.clinicproject.notifications.NotificationOutbox;
+import br.com.unifei.clinicproject.pagination.KeysetPaginator;
+import br.com.unifei.clinicproject.pagination.Projection;
+import br.com.unifei.clinicproject.pagination.SortKey;
 import br.com.unifei.clinicproject.repositories.UserRepository;
+import br.com.unifei.clinicproject.repositories.UserRepository.UserKeys;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter;
+import br.com.unifei.clinicproject.search.UniqueKeyFilter.KeySpace;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.transaction.Transactional;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
+@Timed("clinic.service")
 @RequiredArgsConstructor
 public class UserService {
 
+  private static final Projection<UserEntity, UserView> VIEW =
+      new Projection<>(
+          UserView.class,
+          user ->
+              List.of(
+                  user.get("id"),
+                  user.get("name"),
+                  user.get("cpf"),
+                  user.get("email"),
+                  user.get("role"),
+                  user.get("admissionDate"),
+                  user.get("phone"),
+                  user.get("username"),
+                  user.get("version")));
+
   private final UserMapper mapper;
   private final UserRepository repository;
+  private final KeysetPaginator paginator;
   // todo RELEASE 03 private final AgendamentoRepository agendamentoRepository;
-  private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+  private final PasswordHashingService passwordHashingService;
+  private final UniqueKeyFilter uniqueKeys;
+  private final CollectionVersions collectionVersions;
+  private final NotificationOutbox notificationOutbox;
+  private final TransactionTemplate transactionTemplate;
 
   public void createUser(UserRequest userRequest) {
-    repository
-        .findByCpf(userRequest.cpf())
-        .ifPresent(
-            u -> {
-              throw new IllegalArgumentException("CPF já cadastrado.");
-            });
-    repository
-        .findByEmail(userRequest.email())
-        .ifPresent(
-            u -> {
-              throw new IllegalArgumentException("E-mail já cadastrado.");
-            });
-    repository
-        .findByUsername(userRequest.username())
-        .ifPresent(
-            u -> {
-              throw new IllegalArgumentException("Usuário já cadastrado.");
-            });
+    // Chaves novas (o caso comum) nem chegam ao banco; as suspeitas, numa consulta só
+    if (uniqueKeys.mightExist(KeySpace.USER_CPF, userRequest.cpf())
+        || uniqueKeys.mightExist(KeySpace.USER_EMAIL, userRequest.email())
+        || uniqueKeys.mightExist(KeySpace.USER_USERNAME, userRequest.username())) {
+
+      List<UserKeys> existing =
+          repository.findKeysByCpfOrEmailOrUsername(
+              userRequest.cpf(), userRequest.email(), userRequest.username());
+
+      if (existing.stream().anyMatch(u -> userRequest.cpf().equals(u.getCpf()))) {
+        throw new IllegalArgumentException("CPF já cadastrado.");
+      }
+      if (existing.stream().anyMatch(u -> userRequest.email().equals(u.getEmail()))) {
+        throw new IllegalArgumentException("E-mail já cadastrado.");
+      }
+      if (existing.stream().anyMatch(u -> userRequest.username().equals(u.getUsername()))) {
+        throw new IllegalArgumentException("Usuário já cadastrado.");
+      }
+    }
 
     if (userRequest.admissionDate().isAfter(LocalDate.now())) {
       throw new IllegalArgumentException("Data de admissão não pode ser futura.");
     }
 
     UserEntity user = mapper.toEntity(userRequest);
-    user.setPassword(encoder.encode(userRequest.password()));
-
-    UserEntity saved = repository.save(user);
+    user.setPassword(passwordHashingService.encode(userRequest.password()));
+
+    // Usuário e notificação na mesma transação; o hash da senha fica de fora dela
+    UserEntity saved;
+    try {
+      saved =
+          transactionTemplate.execute(
+              status -> {
+                UserEntity created = repository.save(user);
+                enqueueWelcomeEmail(created);
+                return created;
+              });
+    } catch (DataIntegrityViolationException e) {
+      // Cadastro concorrente com a mesma chave: a constraint única do banco é a última barreira
+      throw new IllegalArgumentException("CPF, e-mail ou usuário já cadastrado.", e);
+    }
 
-    sendEmailNotification(saved);
+    uniqueKeys.add(KeySpace.USER_CPF, saved.getCpf());
+    uniqueKeys.add(KeySpace.USER_EMAIL, saved.getEmail());
+    uniqueKeys.add(KeySpace.USER_USERNAME, saved.getUsername());
   }
 
-  // todo
-  private void sendEmailNotification(UserEntity user) {
-    System.out.println(
-        "📧 Email enviado para " + user.getEmail() + ": Usuário cadastrado com sucesso!");
+  // Enviado depois pelo NotificationDispatcher; a chave evita dois e-mails para o mesmo cadastro
+  private void enqueueWelcomeEmail(UserEntity user) {
+    notificationOutbox.enqueue(
+        "user-created:" + user.getId(),
+        user.getEmail(),
+        "Cadastro realizado",
+        "Olá, "
+            + user.getName()
+            + "! Seu usuário "
+            + user.getUsername()
+            + " foi cadastrado com sucesso.");
   }
 
-  public List<UserResponse> findByFilters(UserFilterRequest filter, String orderBy) {
+  @Transactional(readOnly = true)
+  public CursorPageResponse<UserResponse> findByFilters(
+      UserFilterRequest filter, String orderBy, String cursor, Integer size) {
     Specification<UserEntity> spec =
         (root, query, cb) -> {
           List<Predicate> predicates = new ArrayList<>();
@@ -99,38 +161,52 @@ public class UserService {
           return cb.and(predicates.toArray(new Predicate[0]));
         };
 
-    Sort sort =
+    SortKey<UserView, ?> sortKey =
         switch (orderBy) {
-          case "date" -> Sort.by("admissionDate").ascending();
-          default -> Sort.by("name").ascending();
+          case "date" ->
+              new SortKey<>(
+                  "admissionDate",
+                  Sort.Direction.ASC,
+                  UserView::admissionDate,
+                  LocalDate::parse);
+          default -> new SortKey<>("name", Sort.Direction.ASC, UserView::name, Function.identity());
         };
 
-    return repository.findAll(spec, sort).stream().map(mapper::toResponseDTO).toList();
+    return paginator
+        .fetch(UserEntity.class, spec, VIEW, sortKey, UserView::id, cursor, size)
+        .map(mapper::toResponseDTO);
   }
 
+  @CacheEvict(cacheNames = CacheNames.USERS, key = "#userId")
   public UserEntity updateUser(String userId, UserUpdateRequest dto, String adminId) {
     UserEntity user =
         repository
             .findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
 
-    if (dto.getEmail() != null && repository.existsByEmailAndIdNot(dto.getEmail(), userId)) {
+    if (dto.getEmail() != null
+        && uniqueKeys.mightExist(KeySpace.USER_EMAIL, dto.getEmail())
+        && repository.existsByEmailAndIdNot(dto.getEmail(), userId)) {
       throw new IllegalArgumentException("E-mail já está em uso por outro funcionário");
     }
 
+    String previousEmail = user.getEmail();
     mapper.updateEntityFromDto(dto, user);
 
     if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
-      user.setPassword(encoder.encode(dto.getPassword()));
+      user.setPassword(passwordHashingService.encode(dto.getPassword()));
     }
 
     user.setLastModifiedDate(OffsetDateTime.now());
     user.setLastModifiedBy(adminId);
 
-    return repository.save(user);
+    UserEntity saved = repository.save(user);
+    uniqueKeys.replace(KeySpace.USER_EMAIL, previousEmail, saved.getEmail());
+    return saved;
   }
 
   @Transactional
+  @CacheEvict(cacheNames = CacheNames.USERS, key = "#userId")
   public void deleteUser(String userId) {
     UserEntity user =
         repository
@@ -142,6 +218,9 @@ public class UserService {
     }
 
     repository.delete(user);
+    uniqueKeys.remove(KeySpace.USER_CPF, user.getCpf());
+    uniqueKeys.remove(KeySpace.USER_EMAIL, user.getEmail());
+    uniqueKeys.remove(KeySpace.USER_USERNAME, user.getUsername());
 
     // todo RELEASE 03
     //      boolean temAgendamentosFuturos = agendamentoRepository
@@ -158,10 +237,16 @@ public class UserService {
     //      }
   }
 
+  public String listingVersion() {
+    return collectionVersions.etag(UserEntity.class);
+  }
+
+  @Cacheable(cacheNames = CacheNames.USERS, sync = true)
+  @Transactional(readOnly = true)
   public UserResponse findById(String id) {
-    UserEntity user =
+    UserView user =
         repository
-            .findById(id)
+            .findViewById(id)
             .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
 
     return mapper.toResponseDTO(user);
@@ -0,0 +1,106 @@
+-- Schema que o Hibernate (ddl-auto) gerava até aqui. Bancos em arquivo criados antes das
+-- migrações entram como esta versão (spring.flyway.baseline-on-migrate), por isso os nomes das
+-- constraints são os mesmos gerados pelo Hibernate.
+
+CREATE TABLE TUTOR (
+  USER_ID VARCHAR(255) NOT NULL,
+  NAME VARCHAR(150) NOT NULL,
+  CPF VARCHAR(11) NOT NULL UNIQUE,
+  EMAIL VARCHAR(100) NOT NULL UNIQUE,
+  PHONE VARCHAR(15) NOT NULL,
+  ADDRESS VARCHAR(100) NOT NULL,
+  BIRTH_DATE DATE,
+  PASSWORD VARCHAR(100) NOT NULL,
+  ACTIVE BOOLEAN NOT NULL,
+  CREATED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  LAST_MODIFIED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  LAST_MODIFIED_BY VARCHAR(255),
+  VERSION BIGINT NOT NULL,
+  PRIMARY KEY (USER_ID)
+);
+
+CREATE TABLE USERS (
+  USER_ID VARCHAR(255) NOT NULL,
+  NAME VARCHAR(150) NOT NULL,
+  CPF VARCHAR(11) NOT NULL UNIQUE,
+  EMAIL VARCHAR(100) NOT NULL UNIQUE,
+  PHONE VARCHAR(15) NOT NULL,
+  ROLE ENUM ('ADMINISTRADOR', 'ATENDENTE', 'VETERINARIO') NOT NULL,
+  ADMISSION_DATE DATE NOT NULL,
+  USERNAME VARCHAR(30) NOT NULL UNIQUE,
+  PASSWORD VARCHAR(100) NOT NULL,
+  ACTIVE BOOLEAN NOT NULL,
+  CREATED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  LAST_MODIFIED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  LAST_MODIFIED_BY VARCHAR(255),
+  VERSION BIGINT NOT NULL,
+  PRIMARY KEY (USER_ID)
+);
+
+CREATE TABLE PETS (
+  ID VARCHAR(255) NOT NULL,
+  NAME VARCHAR(100) NOT NULL,
+  SPECIES VARCHAR(50) NOT NULL,
+  BREED VARCHAR(100) NOT NULL,
+  SEX VARCHAR(15) NOT NULL,
+  BIRTH_DATE DATE NOT NULL,
+  COLOR VARCHAR(50) NOT NULL,
+  WEIGHT FLOAT(53) NOT NULL,
+  NOTES VARCHAR(500),
+  TUTOR_ID VARCHAR(255) NOT NULL,
+  CREATED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  VERSION BIGINT NOT NULL,
+  PRIMARY KEY (ID)
+);
+
+CREATE TABLE MEDICAL_RECORDS (
+  ID VARCHAR(255) NOT NULL,
+  PET_ID VARCHAR(255) NOT NULL,
+  VETERINARIAN_ID VARCHAR(255) NOT NULL,
+  CONSULTATION_DATE DATE NOT NULL,
+  DIAGNOSIS VARCHAR(1000) NOT NULL,
+  PRESCRIPTION VARCHAR(1000) NOT NULL,
+  NOTES VARCHAR(1000),
+  LAST_MODIFIED_DATE TIMESTAMP(6) WITH TIME ZONE,
+  LAST_MODIFIED_BY VARCHAR(255),
+  PRIMARY KEY (ID)
+);
+
+CREATE TABLE MEDICAL_RECORD_ATTACHMENTS (
+  ID VARCHAR(255) NOT NULL,
+  MEDICAL_RECORD_ID VARCHAR(255),
+  FILE_NAME VARCHAR(255),
+  FILE_PATH VARCHAR(255),
+  CONTENT_HASH VARCHAR(64),
+  FILE_SIZE BIGINT,
+  THUMBNAIL_PATH VARCHAR(255),
+  PRIMARY KEY (ID)
+);
+
+CREATE TABLE NOTIFICATION_OUTBOX (
+  ID VARCHAR(255) NOT NULL,
+  DEDUP_KEY VARCHAR(200) NOT NULL UNIQUE,
+  RECIPIENT VARCHAR(100) NOT NULL,
+  SUBJECT VARCHAR(200) NOT NULL,
+  BODY VARCHAR(4000) NOT NULL,
+  STATUS ENUM ('FAILED', 'PENDING', 'SENT') NOT NULL,
+  ATTEMPTS INTEGER NOT NULL,
+  NEXT_ATTEMPT_AT TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  CREATED_AT TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  SENT_AT TIMESTAMP(6) WITH TIME ZONE,
+  LAST_ERROR VARCHAR(1000),
+  PRIMARY KEY (ID)
+);
+
+CREATE INDEX IDX_ATTACHMENT_CONTENT_HASH ON MEDICAL_RECORD_ATTACHMENTS (CONTENT_HASH);
+CREATE INDEX IDX_MEDICAL_RECORD_DATE ON MEDICAL_RECORDS (CONSULTATION_DATE, ID);
+CREATE INDEX IDX_OUTBOX_STATUS_NEXT_ATTEMPT ON NOTIFICATION_OUTBOX (STATUS, NEXT_ATTEMPT_AT);
+
+ALTER TABLE MEDICAL_RECORD_ATTACHMENTS ADD CONSTRAINT FKK86JGD2FIN7A7VDLY4ITRS8SF
+  FOREIGN KEY (MEDICAL_RECORD_ID) REFERENCES MEDICAL_RECORDS;
+ALTER TABLE MEDICAL_RECORDS ADD CONSTRAINT FKOJFODEEDEI8LA4YHL5WFO99IY
+  FOREIGN KEY (PET_ID) REFERENCES PETS;
+ALTER TABLE MEDICAL_RECORDS ADD CONSTRAINT FK1FUVQS23GB4AGT6U659TYWQQQ
+  FOREIGN KEY (VETERINARIAN_ID) REFERENCES USERS;
+ALTER TABLE PETS ADD CONSTRAINT FKK61WOGOAUJCXAU8C1W3SQ9YJN
+  FOREIGN KEY (TUTOR_ID) REFERENCES TUTOR;
@@ -0,0 +1,25 @@
+-- Índices para os filtros e ordenações das buscas (Specifications + KeysetPaginator). A
+-- paginação ordena pela chave escolhida e depois por ID, então o ID fecha cada índice.
+-- QueryPlanTest confere os planos (EXPLAIN) dessas consultas.
+
+-- Prontuários: sempre por pet, do mais recente para o mais antigo (o filtro por veterinário já
+-- tem o índice da FK)
+CREATE INDEX IDX_MEDICAL_RECORD_PET_DATE ON MEDICAL_RECORDS (PET_ID, CONSULTATION_DATE DESC, ID);
+
+-- Pets: listagem por nome; espécie sem distinção de maiúsculas (coluna calculada, o H2 não
+-- indexa expressões); tutor + nome para o filtro por CPF do tutor, já na ordem da listagem
+ALTER TABLE PETS ADD COLUMN SPECIES_KEY VARCHAR(50) GENERATED ALWAYS AS (LOWER(SPECIES));
+CREATE INDEX IDX_PETS_NAME ON PETS (NAME, ID);
+CREATE INDEX IDX_PETS_SPECIES_NAME ON PETS (SPECIES_KEY, NAME, ID);
+CREATE INDEX IDX_PETS_TUTOR_NAME ON PETS (TUTOR_ID, NAME, ID);
+
+-- Tutores: ordenação por nome ou por data de cadastro; telefone (CPF e e-mail já são únicos)
+CREATE INDEX IDX_TUTOR_NAME ON TUTOR (NAME, USER_ID);
+CREATE INDEX IDX_TUTOR_CREATED ON TUTOR (CREATED_DATE DESC, USER_ID);
+CREATE INDEX IDX_TUTOR_PHONE ON TUTOR (PHONE);
+
+-- Usuários: cargo, período de admissão e as duas ordenações
+CREATE INDEX IDX_USERS_NAME ON USERS (NAME, USER_ID);
+CREATE INDEX IDX_USERS_ROLE_NAME ON USERS (ROLE, NAME, USER_ID);
+CREATE INDEX IDX_USERS_ADMISSION ON USERS (ADMISSION_DATE, USER_ID);
+CREATE INDEX IDX_USERS_ROLE_ADMISSION ON USERS (ROLE, ADMISSION_DATE, USER_ID);
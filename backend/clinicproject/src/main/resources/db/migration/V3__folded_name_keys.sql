@@ -0,0 +1,9 @@
+-- Nome e raça em minúsculas e sem acentos, para o LIKE usado quando o índice de trigramas não
+-- responde (ainda carregando ou consulta pouco seletiva) casar o mesmo que o índice. Equivale a
+-- PortugueseAnalyzer.fold para as letras acentuadas do português (e vizinhas)
+ALTER TABLE PETS ADD COLUMN NAME_KEY VARCHAR(100) GENERATED ALWAYS AS (
+  TRANSLATE(LOWER(NAME), 'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ', 'aaaaaaeeeeiiiiooooouuuucnyy'));
+ALTER TABLE PETS ADD COLUMN BREED_KEY VARCHAR(100) GENERATED ALWAYS AS (
+  TRANSLATE(LOWER(BREED), 'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ', 'aaaaaaeeeeiiiiooooouuuucnyy'));
+ALTER TABLE TUTOR ADD COLUMN NAME_KEY VARCHAR(150) GENERATED ALWAYS AS (
+  TRANSLATE(LOWER(NAME), 'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ', 'aaaaaaeeeeiiiiooooouuuucnyy'));
@@ -0,0 +1,154 @@
+package br.com.unifei.clinicproject.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** LRU no limite de tamanho, expiração por TTL, contadores e a proteção contra put obsoleto. */
+class BoundedTtlCacheTest {
+
+  @Test
+  void evictsLeastRecentlyUsedAtMaxSize() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 3, Duration.ZERO);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.put("c", 3);
+
+    // Leitura renova "a": o menos usado passa a ser "b"
+    assertThat(cache.get("a", Integer.class)).isEqualTo(1);
+    cache.put("d", 4);
+
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("a", Integer.class)).isEqualTo(1);
+    assertThat(cache.get("c", Integer.class)).isEqualTo(3);
+    assertThat(cache.get("d", Integer.class)).isEqualTo(4);
+
+    CacheStats stats = cache.stats();
+    assertThat(stats.size()).isEqualTo(3);
+    assertThat(stats.maxSize()).isEqualTo(3);
+    assertThat(stats.evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void entriesExpireAfterTtl() throws InterruptedException {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ofMillis(50));
+    cache.put("a", 1);
+    assertThat(cache.get("a", Integer.class)).isEqualTo(1);
+
+    Thread.sleep(100);
+
+    assertThat(cache.get("a")).isNull();
+    CacheStats stats = cache.stats();
+    assertThat(stats.size()).isZero();
+    assertThat(stats.expirations()).isEqualTo(1);
+    assertThat(stats.evictions()).isZero();
+    assertThat(stats.ttl()).isEqualTo(Duration.ofMillis(50));
+  }
+
+  @Test
+  void zeroTtlNeverExpires() throws InterruptedException {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+    cache.put("a", 1);
+
+    Thread.sleep(20);
+
+    assertThat(cache.get("a", Integer.class)).isEqualTo(1);
+    assertThat(cache.stats().ttl()).isNull();
+  }
+
+  @Test
+  void countsHitsMissesAndPuts() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+
+    assertThat(cache.get("a", () -> 1)).isEqualTo(1);
+    assertThat(cache.get("a", () -> 2)).isEqualTo(1);
+    cache.put("b", 2);
+    cache.get("b");
+    cache.get("c");
+
+    CacheStats stats = cache.stats();
+    assertThat(stats.hits()).isEqualTo(2);
+    assertThat(stats.misses()).isEqualTo(2);
+    assertThat(stats.puts()).isEqualTo(2);
+    assertThat(stats.hitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  void nullValuesAndZeroSizeAreNotStored() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+    assertThat(cache.<Object>get("a", () -> null)).isNull();
+    assertThat(cache.stats().size()).isZero();
+
+    BoundedTtlCache disabled = new BoundedTtlCache("off", 0, Duration.ZERO);
+    disabled.put("a", 1);
+    assertThat(disabled.get("a")).isNull();
+    assertThat(disabled.stats().puts()).isZero();
+  }
+
+  @Test
+  void loadRacingAnEvictionIsNotCached() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+
+    // A escrita confirma e invalida enquanto a leitura ainda carrega o valor antigo
+    String loaded =
+        cache.get(
+            "pet-1",
+            () -> {
+              cache.evict("pet-1");
+              return "antigo";
+            });
+
+    assertThat(loaded).isEqualTo("antigo");
+    assertThat(cache.get("pet-1")).isNull();
+    assertThat(cache.get("pet-1", () -> "novo")).isEqualTo("novo");
+    assertThat(cache.get("pet-1", String.class)).isEqualTo("novo");
+  }
+
+  @Test
+  void loadRacingAClearIsNotCached() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+
+    cache.get(
+        "pet-1",
+        () -> {
+          cache.clear();
+          return "antigo";
+        });
+
+    assertThat(cache.get("pet-1")).isNull();
+  }
+
+  @Test
+  void evictionOfAnotherStripeDoesNotDiscardTheLoad() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+    String other = otherStripe("pet-1");
+
+    cache.get(
+        "pet-1",
+        () -> {
+          cache.evict(other);
+          return "atual";
+        });
+
+    assertThat(cache.get("pet-1", String.class)).isEqualTo("atual");
+  }
+
+  @Test
+  void explicitPutIgnoresGenerations() {
+    BoundedTtlCache cache = new BoundedTtlCache("pets", 10, Duration.ZERO);
+    cache.evict("pet-1");
+    cache.put("pet-1", "novo");
+
+    assertThat(cache.get("pet-1", String.class)).isEqualTo("novo");
+  }
+
+  // Chave com hash em outra das 64 faixas de geração
+  private static String otherStripe(String key) {
+    int stripe = Math.floorMod(key.hashCode(), 64);
+    for (int i = 0; ; i++) {
+      String candidate = "pet-" + i;
+      if (Math.floorMod(candidate.hashCode(), 64) != stripe) return candidate;
+    }
+  }
+}
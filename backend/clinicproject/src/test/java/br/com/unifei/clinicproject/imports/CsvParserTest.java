@@ -0,0 +1,131 @@
+package br.com.unifei.clinicproject.imports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Parser de CSV isolado e os erros por linha que o {@link ImportRowReader} monta a partir dele. */
+class CsvParserTest {
+
+  @Test
+  void splitsPlainFieldsAndKeepsEmptyOnes() throws IOException {
+    assertThat(records("a,b,c\n,x,\n"))
+        .containsExactly(List.of("a", "b", "c"), List.of("", "x", ""));
+  }
+
+  @Test
+  void lastRecordWithoutLineBreakIsRead() throws IOException {
+    assertThat(records("a,b\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+  }
+
+  @Test
+  void acceptsCrLfAndLoneCr() throws IOException {
+    assertThat(records("a,b\r\nc,d\re,f\r\n"))
+        .containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"));
+  }
+
+  @Test
+  void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+    assertThat(records("\"Silva, Maria\",\"diz \"\"oi\"\"\",\"\"\n"))
+        .containsExactly(List.of("Silva, Maria", "diz \"oi\"", ""));
+  }
+
+  @Test
+  void quotedFieldsKeepLineBreaksAndCountPhysicalLines() throws IOException {
+    CsvParser parser = new CsvParser(new StringReader("\"linha 1\nlinha 2\",x\ny,z\n"));
+
+    assertThat(parser.line()).isEqualTo(1);
+    assertThat(parser.next()).containsExactly("linha 1\nlinha 2", "x");
+    assertThat(parser.line()).isEqualTo(3);
+    assertThat(parser.next()).containsExactly("y", "z");
+    assertThat(parser.line()).isEqualTo(4);
+    assertThat(parser.next()).isNull();
+  }
+
+  @Test
+  void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+    assertThat(records("12\" tubo,b\n")).containsExactly(List.of("12\" tubo", "b"));
+  }
+
+  @Test
+  void eofInsideQuotesIsMalformed() throws IOException {
+    CsvParser parser = new CsvParser(new StringReader("a,b\n\"aberto,c\nd,e\n"));
+
+    assertThat(parser.next()).containsExactly("a", "b");
+    assertThatThrownBy(parser::next)
+        .isInstanceOf(CsvParser.MalformedRecordException.class)
+        .hasMessageContaining("Aspas não fechadas");
+  }
+
+  @Test
+  void readerSkipsBomAndBlankLines() throws IOException {
+    List<ImportRow> rows = rows("\uFEFFnome, especie\nRex,Cao\n\nMia, \n");
+
+    assertThat(rows)
+        .extracting(ImportRow::line, ImportRow::error)
+        .containsExactly(tuple(2L, null), tuple(4L, null));
+    assertThat(rows.get(0).values()).containsExactly(entry("nome", "Rex"), entry("especie", "Cao"));
+    assertThat(rows.get(1).values()).containsEntry("nome", "Mia").containsEntry("especie", null);
+  }
+
+  @Test
+  void readerReportsColumnCountMismatchAndKeepsGoing() throws IOException {
+    List<ImportRow> rows = rows("nome,especie\n\"Rex\nJr\",Cao,extra\nMia,Gato\n");
+
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).line()).isEqualTo(2);
+    assertThat(rows.get(0).values()).isNull();
+    assertThat(rows.get(0).error()).isEqualTo("Esperadas 2 colunas, encontradas 3");
+    assertThat(rows.get(1).line()).isEqualTo(4);
+    assertThat(rows.get(1).values()).containsEntry("nome", "Mia");
+  }
+
+  @Test
+  void readerReportsUnclosedQuoteOnTheLineWhereItStarts() throws IOException {
+    List<ImportRow> rows = rows("nome,especie\nRex,Cao\n\"Mia,Gato\nBob,Cao\n");
+
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(1).line()).isEqualTo(3);
+    assertThat(rows.get(1).values()).isNull();
+    assertThat(rows.get(1).error()).contains("Aspas não fechadas");
+  }
+
+  @Test
+  void readerReportsMalformedHeader() throws IOException {
+    List<ImportRow> rows = rows("\"nome,especie\n");
+
+    assertThat(rows).hasSize(1);
+    assertThat(rows.get(0).line()).isEqualTo(1);
+    assertThat(rows.get(0).error()).startsWith("Cabeçalho inválido");
+  }
+
+  private static List<List<String>> records(String text) throws IOException {
+    CsvParser parser = new CsvParser(new StringReader(text));
+    List<List<String>> records = new ArrayList<>();
+    for (List<String> record = parser.next(); record != null; record = parser.next()) {
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static List<ImportRow> rows(String text) throws IOException {
+    var input = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    List<ImportRow> rows = new ArrayList<>();
+    try (var reader = new ImportRowReader(input, ImportFormat.CSV, new ObjectMapper())) {
+      for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,19 @@
+package br.com.unifei.clinicproject.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Falha o teste se o corpo do método executar mais de {@code value} comandos SQL. Setup em
+ * {@code @BeforeEach}/{@code @BeforeAll} não conta.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface MaxQueries {
+
+  int value();
+}
@@ -0,0 +1,75 @@
+package br.com.unifei.clinicproject.metrics;
+
+import java.util.Optional;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Conta o SQL executado pelo corpo de cada teste. Com {@link MaxQueries} o limite é verificado ao
+ * final; um parâmetro {@link QueryStats} no método dá acesso aos números para asserções próprias.
+ * Requisições via MockMvc rodam na thread do teste e entram na contagem.
+ */
+public class QueryCountExtension
+    implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+  @Override
+  public void beforeTestExecution(ExtensionContext context) {
+    store(context).put(QueryStats.class, counter(context).start());
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext context) {
+    QueryStats stats = store(context).remove(QueryStats.class, QueryStats.class);
+    if (stats == null) return;
+
+    counter(context).stop(stats);
+
+    Optional<MaxQueries> limit =
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+            .or(
+                () ->
+                    AnnotationSupport.findAnnotation(
+                        context.getRequiredTestClass(), MaxQueries.class));
+
+    if (limit.isPresent() && stats.statements() > limit.get().value()) {
+      StringBuilder message =
+          new StringBuilder("Expected at most ")
+              .append(limit.get().value())
+              .append(" SQL statements, but ran ")
+              .append(stats);
+      stats
+          .repeatedShapes(1)
+          .forEach(
+              (shape, count) -> message.append("\n  ").append(count).append("x ").append(shape));
+
+      throw new AssertionFailedError(message.toString(), limit.get().value(), stats.statements());
+    }
+  }
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameter, ExtensionContext context) {
+    return parameter.getParameter().getType() == QueryStats.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameter, ExtensionContext context) {
+    return store(context).get(QueryStats.class, QueryStats.class);
+  }
+
+  private static ExtensionContext.Store store(ExtensionContext context) {
+    return context.getStore(NAMESPACE);
+  }
+
+  private static QueryCounter counter(ExtensionContext context) {
+    return SpringExtension.getApplicationContext(context).getBean(QueryCounter.class);
+  }
+}
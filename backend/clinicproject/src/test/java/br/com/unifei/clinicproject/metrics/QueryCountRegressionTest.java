@@ -0,0 +1,160 @@
+package br.com.unifei.clinicproject.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.unifei.clinicproject.entities.MedicalRecordAttachmentEntity;
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.entities.UserEntity;
+import br.com.unifei.clinicproject.enums.UserRole;
+import br.com.unifei.clinicproject.repositories.MedicalRecordRepository;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Trava o número de comandos SQL das listagens: um N+1 novo quebra o build. */
+@SpringBootTest(
+    properties = {"spring.datasource.url=jdbc:h2:mem:querycount", "pagination.max-size=500"})
+@AutoConfigureMockMvc
+@ExtendWith(QueryCountExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountRegressionTest {
+
+  private static final int TUTORS = 50;
+  private static final int PETS = 500;
+  private static final int RECORDS = 100;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private TutorRepository tutorRepository;
+  @Autowired private PetRepository petRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MedicalRecordRepository medicalRecordRepository;
+
+  private List<PetEntity> pets;
+
+  @BeforeAll
+  void seed() {
+    List<TutorEntity> tutors = new ArrayList<>();
+    for (int i = 0; i < TUTORS; i++) {
+      tutors.add(
+          TutorEntity.builder()
+              .name("Tutor " + i)
+              .cpf(String.format("%011d", i))
+              .email("tutor" + i + "@clinic.test")
+              .phone("35999999999")
+              .address("Rua " + i)
+              .password("x")
+              .build());
+    }
+    tutorRepository.saveAll(tutors);
+
+    pets = new ArrayList<>();
+    for (int i = 0; i < PETS; i++) {
+      pets.add(
+          PetEntity.builder()
+              .name("Pet " + i)
+              .species("cao")
+              .breed("srd")
+              .sex("M")
+              .birthDate(LocalDate.of(2020, 1, 1))
+              .color("preto")
+              .weight(3.0)
+              .tutor(tutors.get(i % TUTORS))
+              .build());
+    }
+    petRepository.saveAll(pets);
+
+    UserEntity vet =
+        userRepository.save(
+            UserEntity.builder()
+                .name("Vet")
+                .cpf("99999999999")
+                .email("vet@clinic.test")
+                .phone("35999999999")
+                .role(UserRole.VETERINARIO)
+                .admissionDate(LocalDate.of(2020, 1, 1))
+                .username("vet")
+                .password("x")
+                .active(true)
+                .build());
+
+    List<MedicalRecordEntity> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      MedicalRecordEntity record =
+          MedicalRecordEntity.builder()
+              .pet(pets.get(0))
+              .veterinarian(vet)
+              .consultationDate(LocalDate.of(2025, 1, 1).plusDays(i))
+              .diagnosis("Diagnóstico " + i)
+              .prescription("-")
+              .build();
+      for (int j = 0; j < 2; j++) {
+        record
+            .getAttachments()
+            .add(
+                MedicalRecordAttachmentEntity.builder()
+                    .fileName("exame-" + j + ".png")
+                    .filePath("uploads/exame-" + j + ".png")
+                    .medicalRecord(record)
+                    .build());
+      }
+      records.add(record);
+    }
+    medicalRecordRepository.saveAll(records);
+  }
+
+  @Test
+  @MaxQueries(1)
+  void listingPetsDoesNotQueryPerRow() throws Exception {
+    mockMvc
+        .perform(get("/pets").param("size", String.valueOf(PETS)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(PETS));
+  }
+
+  @Test
+  @MaxQueries(1)
+  void listingTutorsIsASingleQuery() throws Exception {
+    mockMvc
+        .perform(get("/tutors/search").param("size", String.valueOf(TUTORS)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(TUTORS));
+  }
+
+  @Test
+  @MaxQueries(2)
+  void searchingRecordsLoadsAttachmentsInOneQuery() throws Exception {
+    mockMvc
+        .perform(
+            get("/medical-records/search")
+                .param("petId", pets.get(0).getId())
+                .param("size", String.valueOf(RECORDS)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(RECORDS))
+        .andExpect(jsonPath("$.items[0].attachments.length()").value(2));
+  }
+
+  @Test
+  void detectsTheSameStatementRepeatedPerRow(QueryStats stats) {
+    pets.subList(0, 10).forEach(pet -> petRepository.findById(pet.getId()));
+
+    assertThat(stats.statements()).isEqualTo(10);
+    assertThat(stats.rows()).isEqualTo(10);
+    assertThat(stats.repeatedShapes(5)).hasSize(1).containsValue(10);
+  }
+}
@@ -0,0 +1,275 @@
+package br.com.unifei.clinicproject.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.unifei.clinicproject.entities.MedicalRecordEntity;
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.entities.UserEntity;
+import br.com.unifei.clinicproject.enums.UserRole;
+import br.com.unifei.clinicproject.repositories.MedicalRecordRepository;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.repositories.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Confere o plano (EXPLAIN do H2) de cada SELECT das buscas mais usadas, com os mesmos parâmetros
+ * da requisição: uma consulta que volta a varrer a tabela inteira quebra o build. O schema é o das
+ * migrações, então um índice esquecido numa migração nova também aparece aqui.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplan")
+@AutoConfigureMockMvc
+@Import(QueryPlanTest.Capture.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+  private static final int TUTORS = 200;
+  private static final int PETS = 1000;
+  private static final int USERS = 60;
+  private static final int RECORDS = 2000;
+  private static final String[] SPECIES = {"Cao", "Gato", "Ave", "Coelho", "Peixe"};
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private SelectRecorder recorder;
+  @Autowired private TutorRepository tutorRepository;
+  @Autowired private PetRepository petRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MedicalRecordRepository medicalRecordRepository;
+
+  private List<TutorEntity> tutors;
+  private List<PetEntity> pets;
+  private List<UserEntity> vets;
+
+  @TestConfiguration
+  static class Capture {
+    @Bean
+    SelectRecorder selectRecorder() {
+      return new SelectRecorder();
+    }
+  }
+
+  record Select(String sql, Object[] parameters) {}
+
+  /** Guarda os SELECTs executados enquanto a gravação está ligada, com os valores dos binds. */
+  static class SelectRecorder implements QueryExecutionListener {
+
+    private final List<Select> selects = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    List<Select> record(Runnable action) {
+      selects.clear();
+      recording = true;
+      try {
+        action.run();
+      } finally {
+        recording = false;
+      }
+      return List.copyOf(selects);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+      if (!recording) return;
+
+      for (QueryInfo query : queryInfoList) {
+        if (!query.getQuery().stripLeading().toLowerCase().startsWith("select")) continue;
+
+        List<List<ParameterSetOperation>> parameters = query.getParametersList();
+        Object[] values = parameters.isEmpty() ? new Object[0] : values(parameters.get(0));
+        selects.add(new Select(query.getQuery(), values));
+      }
+    }
+
+    private static Object[] values(List<ParameterSetOperation> operations) {
+      return operations.stream()
+          .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+          .map(
+              operation ->
+                  "setNull".equals(operation.getMethod().getName())
+                      ? null
+                      : operation.getArgs()[1])
+          .toArray();
+    }
+  }
+
+  @BeforeAll
+  void seed() {
+    tutors = new ArrayList<>();
+    for (int i = 0; i < TUTORS; i++) {
+      tutors.add(
+          TutorEntity.builder()
+              .name("Tutor " + i)
+              .cpf(String.format("%011d", i))
+              .email("tutor" + i + "@clinic.test")
+              .phone(String.format("359%08d", i))
+              .address("Rua " + i)
+              .password("x")
+              .build());
+    }
+    tutorRepository.saveAll(tutors);
+
+    pets = new ArrayList<>();
+    for (int i = 0; i < PETS; i++) {
+      pets.add(
+          PetEntity.builder()
+              .name("Pet " + i)
+              .species(SPECIES[i % SPECIES.length])
+              .breed("srd")
+              .sex("M")
+              .birthDate(LocalDate.of(2020, 1, 1))
+              .color("preto")
+              .weight(3.0)
+              .tutor(tutors.get(i % TUTORS))
+              .build());
+    }
+    petRepository.saveAll(pets);
+
+    UserRole[] roles = UserRole.values();
+    List<UserEntity> users = new ArrayList<>();
+    for (int i = 0; i < USERS; i++) {
+      users.add(
+          UserEntity.builder()
+              .name("Usuário " + i)
+              .cpf(String.format("9%010d", i))
+              .email("user" + i + "@clinic.test")
+              .phone("35999999999")
+              .role(roles[i % roles.length])
+              .admissionDate(LocalDate.of(2015, 1, 1).plusMonths(i))
+              .username("user" + i)
+              .password("x")
+              .active(true)
+              .build());
+    }
+    userRepository.saveAll(users);
+    vets = users.stream().filter(user -> user.getRole() == UserRole.VETERINARIO).toList();
+
+    List<MedicalRecordEntity> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      records.add(
+          MedicalRecordEntity.builder()
+              .pet(pets.get(i % 50))
+              .veterinarian(vets.get(i % vets.size()))
+              .consultationDate(LocalDate.of(2024, 1, 1).plusDays(i % 365))
+              .diagnosis("Diagnóstico " + i)
+              .prescription("-")
+              .build());
+    }
+    medicalRecordRepository.saveAll(records);
+
+    // Seletividade real das colunas para o otimizador do H2
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  Stream<Arguments> hotQueries() {
+    String petId = pets.get(0).getId();
+
+    return Stream.of(
+        Arguments.of("pets by name", get("/pets")),
+        Arguments.of("pets by species", get("/pets").param("species", "gato")),
+        Arguments.of("pets by owner cpf", get("/pets").param("ownerCpf", tutors.get(7).getCpf())),
+        Arguments.of("tutors by name", get("/tutors/search")),
+        Arguments.of("tutors by created date", get("/tutors/search").param("orderBy", "created")),
+        Arguments.of("tutors by phone", get("/tutors/search").param("phone", "35900000042")),
+        Arguments.of("users by name", get("/users/search")),
+        Arguments.of("users by role", get("/users/search").param("role", "VETERINARIO")),
+        Arguments.of(
+            "users by admission",
+            get("/users/search")
+                .param("admissionStart", "2016-01-01")
+                .param("admissionEnd", "2016-12-31")
+                .param("orderBy", "date")),
+        Arguments.of("records by pet", get("/medical-records/search").param("petId", petId)),
+        Arguments.of(
+            "records by pet and vet",
+            get("/medical-records/search")
+                .param("petId", petId)
+                .param("veterinarianId", vets.get(0).getId())),
+        Arguments.of(
+            "records by pet and period",
+            get("/medical-records/search")
+                .param("petId", petId)
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-06-30")));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("hotQueries")
+  void hotQueriesUseAnIndex(String name, MockHttpServletRequestBuilder request) {
+    List<Select> selects = recorder.record(() -> perform(request));
+
+    assertThat(selects).as("SELECTs run by %s", name).isNotEmpty();
+    selects.forEach(this::assertNoTableScan);
+  }
+
+  @Test
+  void nextPageOfRecordsSeeksTheIndex() throws Exception {
+    String petId = pets.get(0).getId();
+    String body =
+        mockMvc
+            .perform(get("/medical-records/search").param("petId", petId).param("size", "5"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String cursor = JsonPath.read(body, "$.next");
+
+    List<Select> selects =
+        recorder.record(
+            () ->
+                perform(
+                    get("/medical-records/search")
+                        .param("petId", petId)
+                        .param("cursor", cursor)
+                        .param("size", "5")));
+
+    assertThat(selects).isNotEmpty();
+    selects.forEach(this::assertNoTableScan);
+  }
+
+  private void perform(MockHttpServletRequestBuilder request) {
+    try {
+      mockMvc.perform(request).andExpect(status().isOk());
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void assertNoTableScan(Select select) {
+    String plan =
+        jdbcTemplate.queryForObject("EXPLAIN " + select.sql(), String.class, select.parameters());
+
+    assertThat(plan).as("Plan for %s", select.sql()).doesNotContain(".tableScan");
+  }
+}
@@ -0,0 +1,151 @@
+package br.com.unifei.clinicproject.notifications;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.unifei.clinicproject.dtos.request.UserRequest;
+import br.com.unifei.clinicproject.entities.NotificationOutboxEntity;
+import br.com.unifei.clinicproject.enums.NotificationStatus;
+import br.com.unifei.clinicproject.enums.UserRole;
+import br.com.unifei.clinicproject.repositories.NotificationOutboxRepository;
+import br.com.unifei.clinicproject.services.UserService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Outbox e dispatcher contra um SMTP local (GreenMail), incluindo o SMTP fora do ar. */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:notifications",
+      "spring.mail.host=localhost",
+      "spring.mail.port=3025",
+      "notifications.poll-interval=1h",
+      "notifications.initial-backoff=30s",
+      "notifications.max-backoff=5m",
+      "notifications.max-attempts=2"
+    })
+class NotificationDispatcherTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @Autowired private UserService userService;
+  @Autowired private NotificationOutbox outbox;
+  @Autowired private NotificationDispatcher dispatcher;
+  @Autowired private NotificationOutboxRepository repository;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Test
+  void createUserSendsWelcomeEmailOnce() throws Exception {
+    userService.createUser(
+        new UserRequest(
+            "Maria Souza",
+            "12345678901",
+            "maria@clinic.test",
+            "35999999999",
+            UserRole.VETERINARIO,
+            LocalDate.of(2020, 1, 1),
+            "maria",
+            "Abcdef1@"));
+
+    // O commit acorda o dispatcher; a requisição não espera pelo SMTP
+    assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+    assertThat(dispatcher.drain()).isZero();
+
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertThat(received).hasSize(1);
+    assertThat(received[0].getSubject()).isEqualTo("Cadastro realizado");
+    assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("maria@clinic.test");
+
+    NotificationOutboxEntity row = find("user-created:");
+    assertThat(row.getStatus()).isEqualTo(NotificationStatus.SENT);
+    assertThat(row.getAttempts()).isEqualTo(1);
+    assertThat(row.getSentAt()).isNotNull();
+  }
+
+  @Test
+  void repeatedKeyIsQueuedOnce() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          outbox.enqueue("dedup-test", "a@clinic.test", "Assunto", "Corpo");
+          outbox.enqueue("dedup-test", "a@clinic.test", "Assunto", "Corpo");
+        });
+
+    dispatcher.drain();
+
+    assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+    assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    assertThat(repository.findAll().stream().filter(n -> n.getDedupKey().equals("dedup-test")))
+        .hasSize(1);
+  }
+
+  @Test
+  void failedSendIsRetriedWithBackoff() {
+    greenMail.stop();
+    enqueue("retry-test");
+
+    assertThat(dispatcher.drain()).isZero();
+
+    NotificationOutboxEntity row = find("retry-test");
+    assertThat(row.getStatus()).isEqualTo(NotificationStatus.PENDING);
+    assertThat(row.getAttempts()).isEqualTo(1);
+    assertThat(row.getLastError()).isNotBlank();
+    assertThat(row.getNextAttemptAt()).isAfter(OffsetDateTime.now().plusSeconds(20));
+
+    greenMail.start();
+    makeDue(row);
+    dispatcher.drain();
+
+    assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+    assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    assertThat(find("retry-test").getStatus()).isEqualTo(NotificationStatus.SENT);
+    assertThat(find("retry-test").getAttempts()).isEqualTo(2);
+  }
+
+  @Test
+  void givesUpAfterMaxAttempts() {
+    greenMail.stop();
+    enqueue("give-up-test");
+
+    dispatcher.drain();
+    makeDue(find("give-up-test"));
+    dispatcher.drain();
+
+    NotificationOutboxEntity row = find("give-up-test");
+    assertThat(row.getStatus()).isEqualTo(NotificationStatus.FAILED);
+    assertThat(row.getAttempts()).isEqualTo(2);
+  }
+
+  @Test
+  void backoffDoublesUpToTheLimit() {
+    assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+    assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+    assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(240));
+    assertThat(dispatcher.backoff(5)).isEqualTo(Duration.ofMinutes(5));
+    assertThat(dispatcher.backoff(100)).isEqualTo(Duration.ofMinutes(5));
+  }
+
+  private void enqueue(String key) {
+    transactionTemplate.executeWithoutResult(
+        status -> outbox.enqueue(key, "b@clinic.test", "Assunto", "Corpo"));
+  }
+
+  private void makeDue(NotificationOutboxEntity row) {
+    row.setNextAttemptAt(OffsetDateTime.now().minusSeconds(1));
+    repository.save(row);
+  }
+
+  private NotificationOutboxEntity find(String keyPrefix) {
+    return repository.findAll().stream()
+        .filter(n -> n.getDedupKey().startsWith(keyPrefix))
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,190 @@
+package br.com.unifei.clinicproject.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.unifei.clinicproject.dtos.response.CursorPageResponse;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.exceptions.InvalidPageRequestException;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Paginação por keyset contra o banco: percorrer todas as páginas devolve cada linha uma única vez
+ * e na ordem de (chave, id), inclusive com chaves empatadas na fronteira entre páginas.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:keyset")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPaginatorTest {
+
+  public record Row(String id, String name, OffsetDateTime createdDate) {}
+
+  private static final Projection<TutorEntity, Row> ROW =
+      new Projection<>(
+          Row.class,
+          tutor -> List.of(tutor.get("id"), tutor.get("name"), tutor.get("createdDate")));
+
+  private static final Specification<TutorEntity> SEEDED =
+      (root, query, cb) -> cb.like(root.get("email"), "%@keyset.test");
+
+  private static final OffsetDateTime T0 =
+      OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+  @Autowired private KeysetPaginator paginator;
+  @Autowired private TutorRepository tutorRepository;
+  @Autowired private MockMvc mockMvc;
+
+  private List<Row> seeded;
+
+  @BeforeAll
+  void seed() {
+    // Nomes e datas repetidos para que várias páginas terminem no meio de um empate
+    String[] names = {"Ana", "Ana", "Ana", "Bia|Souza", "Bia|Souza", "Célia", "Ana", "Davi"};
+    int[] days = {0, 1, 1, 1, 2, 2, 2, 3};
+
+    List<TutorEntity> tutors = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      tutors.add(
+          TutorEntity.builder()
+              .name(names[i])
+              .cpf(String.format("%011d", i))
+              .email("tutor" + i + "@keyset.test")
+              .phone("35999999999")
+              .address("Rua " + i)
+              .password("x")
+              .createdDate(T0.plusDays(days[i]))
+              .build());
+    }
+    seeded =
+        tutorRepository.saveAll(tutors).stream()
+            .map(tutor -> new Row(tutor.getId(), tutor.getName(), tutor.getCreatedDate()))
+            .toList();
+  }
+
+  @Test
+  void ascendingKeyWithTiesVisitsEveryRowOnce() {
+    SortKey<Row, String> byName =
+        new SortKey<>("name", Sort.Direction.ASC, Row::name, Function.identity());
+
+    assertThat(walk(byName, 2))
+        .containsExactlyElementsOf(ids(Comparator.comparing(Row::name).thenComparing(Row::id)));
+  }
+
+  @Test
+  void descendingKeyWithTiesVisitsEveryRowOnce() {
+    SortKey<Row, OffsetDateTime> newestFirst =
+        new SortKey<>(
+            "createdDate", Sort.Direction.DESC, Row::createdDate, OffsetDateTime::parse);
+
+    for (int size = 1; size <= 4; size++) {
+      assertThat(walk(newestFirst, size))
+          .as("page size %d", size)
+          .containsExactlyElementsOf(
+              ids(
+                  Comparator.comparing(Row::createdDate, Comparator.reverseOrder())
+                      .thenComparing(Row::id)));
+    }
+  }
+
+  @Test
+  void cursorIsUrlSafeBase64OfKeyAndId() {
+    SortKey<Row, String> byName =
+        new SortKey<>("name", Sort.Direction.ASC, Row::name, Function.identity());
+
+    // Ana x4 e depois Bia|Souza: a 5ª linha tem o separador dentro da chave
+    CursorPageResponse<Row> page = fetch(byName, null, 5);
+    Row last = page.getItems().get(4);
+    assertThat(last.name()).isEqualTo("Bia|Souza");
+
+    assertThat(page.getNext()).matches("[A-Za-z0-9_-]+");
+    assertThat(new String(Base64.getUrlDecoder().decode(page.getNext()), StandardCharsets.UTF_8))
+        .isEqualTo("Bia|Souza|" + last.id());
+
+    // O id é o que vem depois do último separador; a chave pode conter outros
+    assertThat(fetch(byName, page.getNext(), 5).getItems())
+        .extracting(Row::name)
+        .containsExactly("Bia|Souza", "Célia", "Davi");
+  }
+
+  @Test
+  void lastPageHasNoCursor() {
+    SortKey<Row, String> byName =
+        new SortKey<>("name", Sort.Direction.ASC, Row::name, Function.identity());
+
+    assertThat(fetch(byName, null, seeded.size()).getNext()).isNull();
+    assertThat(fetch(byName, null, seeded.size() - 1).getNext()).isNotNull();
+  }
+
+  @Test
+  void resolveSizeAppliesDefaultAndCap() {
+    assertThat(paginator.resolveSize(null)).isEqualTo(20);
+    assertThat(paginator.resolveSize(1)).isEqualTo(1);
+    assertThat(paginator.resolveSize(10_000)).isEqualTo(100);
+    assertThatThrownBy(() -> paginator.resolveSize(0))
+        .isInstanceOf(InvalidPageRequestException.class);
+  }
+
+  @Test
+  void malformedCursorOrSizeIsBadRequest() throws Exception {
+    String noSeparator = encode("sem-separador");
+    String badDate = encode("ontem|" + seeded.get(0).id());
+
+    expectBadRequest("cursor", "não é base64");
+    expectBadRequest("cursor", noSeparator);
+    mockMvc
+        .perform(get("/tutors/search").param("orderBy", "createdDate").param("cursor", badDate))
+        .andExpect(status().isBadRequest());
+    expectBadRequest("size", "0");
+    expectBadRequest("size", "-5");
+  }
+
+  private void expectBadRequest(String param, String value) throws Exception {
+    mockMvc.perform(get("/tutors/search").param(param, value)).andExpect(status().isBadRequest());
+  }
+
+  private List<String> walk(SortKey<Row, ?> sortKey, int size) {
+    List<String> ids = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPageResponse<Row> page = fetch(sortKey, cursor, size);
+      assertThat(page.getItems()).hasSizeLessThanOrEqualTo(size);
+      page.getItems().forEach(row -> ids.add(row.id()));
+      cursor = page.getNext();
+    } while (cursor != null);
+    return ids;
+  }
+
+  private <K extends Comparable<? super K>> CursorPageResponse<Row> fetch(
+      SortKey<Row, K> sortKey, String cursor, int size) {
+    return paginator.fetch(TutorEntity.class, SEEDED, ROW, sortKey, Row::id, cursor, size);
+  }
+
+  private List<String> ids(Comparator<Row> order) {
+    return seeded.stream().sorted(order).map(Row::id).toList();
+  }
+
+  private static String encode(String raw) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
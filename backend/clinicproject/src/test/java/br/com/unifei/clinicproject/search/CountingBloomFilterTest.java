@@ -0,0 +1,124 @@
+package br.com.unifei.clinicproject.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Contadores de 4 bits: saturação na adição e na remoção e ausência de falsos negativos. */
+class CountingBloomFilterTest {
+
+  @Test
+  void addedKeyIsFoundAndRemovedKeyIsGone() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    filter.add("maria@clinic.test");
+    assertThat(filter.mightContain("maria@clinic.test")).isTrue();
+
+    filter.remove("maria@clinic.test");
+    assertThat(filter.mightContain("maria@clinic.test")).isFalse();
+  }
+
+  @Test
+  void repeatedAddsAreCounted() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    for (int i = 0; i < 3; i++) filter.add("rex");
+    for (int i = 0; i < 2; i++) filter.remove("rex");
+    assertThat(filter.mightContain("rex")).isTrue();
+
+    filter.remove("rex");
+    assertThat(filter.mightContain("rex")).isFalse();
+  }
+
+  @Test
+  void counterSaturatesInsteadOfOverflowing() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    // 16 adições fariam um contador de 4 bits voltar a zero e vazar para o vizinho
+    for (int i = 0; i < 16; i++) {
+      filter.add("rex");
+      assertThat(filter.mightContain("rex")).isTrue();
+    }
+    for (int i = 0; i < 100; i++) filter.add("rex");
+    assertThat(filter.mightContain("rex")).isTrue();
+    assertThat(filter.mightContain("mia")).isFalse();
+  }
+
+  @Test
+  void saturatedCounterIsNeverDecremented() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    for (int i = 0; i < 20; i++) filter.add("rex");
+    for (int i = 0; i < 20; i++) filter.remove("rex");
+
+    // A contagem real se perdeu na saturação: melhor um falso positivo que um falso negativo
+    assertThat(filter.mightContain("rex")).isTrue();
+  }
+
+  @Test
+  void removingAnAbsentKeyDoesNotUnderflow() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+    filter.add("rex");
+
+    for (int i = 0; i < 100; i++) filter.remove("key-" + i);
+
+    assertThat(filter.mightContain("rex")).isTrue();
+  }
+
+  @Test
+  void noFalseNegativesAfterAddRemoveCycles() {
+    CountingBloomFilter filter = new CountingBloomFilter(2000, 0.01);
+    Map<String, Integer> counts = new HashMap<>();
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) keys.add("tutor" + i + "@clinic.test");
+
+    Random random = new Random(42);
+    for (int round = 0; round < 20; round++) {
+      for (int op = 0; op < 2000; op++) {
+        String key = keys.get(random.nextInt(keys.size()));
+        int count = counts.getOrDefault(key, 0);
+
+        // Só remove o que foi adicionado, como o UniqueKeyFilter faz
+        if (count > 0 && random.nextBoolean()) {
+          filter.remove(key);
+          counts.put(key, count - 1);
+        } else {
+          filter.add(key);
+          counts.put(key, count + 1);
+        }
+      }
+
+      counts.forEach(
+          (key, count) -> {
+            if (count > 0) assertThat(filter.mightContain(key)).as(key).isTrue();
+          });
+    }
+  }
+
+  @Test
+  void falsePositiveRateStaysNearTheTarget() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) filter.add("present-" + i);
+
+    int falsePositives = 0;
+    for (int i = 0; i < 20_000; i++) {
+      if (filter.mightContain("absent-" + i)) falsePositives++;
+    }
+
+    assertThat(falsePositives / 20_000.0).isLessThan(0.03);
+  }
+
+  @Test
+  void rejectsInvalidSizing() {
+    assertThatThrownBy(() -> new CountingBloomFilter(0, 0.01))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CountingBloomFilter(100, 1.0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,165 @@
+package br.com.unifei.clinicproject.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.unifei.clinicproject.dtos.projection.AttachmentView;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Download de um anexo com Range, If-Range e If-None-Match, pelo endpoint real. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:attachmentdownload")
+@AutoConfigureMockMvc
+class AttachmentDownloadServiceTest {
+
+  private static final int SIZE = 1000;
+  private static final String HASH = "ab".repeat(32);
+  private static final String ETAG = "\"" + HASH + "\"";
+  private static final String URL = "/medical-records/attachments/file/{id}";
+
+  @MockitoBean private MedicalRecordService medicalRecordService;
+
+  @Autowired private MockMvc mockMvc;
+
+  @TempDir Path dir;
+
+  private byte[] content;
+
+  @BeforeEach
+  void attachment() throws Exception {
+    content = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      content[i] = (byte) i;
+    }
+    Path file = Files.write(dir.resolve(HASH), content);
+
+    when(medicalRecordService.findAttachment("a1"))
+        .thenReturn(
+            new AttachmentView("r1", "a1", "exame.pdf", file.toString(), HASH, (long) SIZE));
+  }
+
+  @Test
+  void wholeFileAdvertisesRangesAndEtag() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(get(URL, "a1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(content);
+  }
+
+  @Test
+  void firstBytes() throws Exception {
+    MvcResult result =
+        perform(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=0-99"), 206)
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/1000"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray())
+        .isEqualTo(Arrays.copyOfRange(content, 0, 100));
+  }
+
+  @Test
+  void suffixRange() throws Exception {
+    MvcResult result =
+        perform(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=-100"), 206)
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 900-999/1000"))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray())
+        .isEqualTo(Arrays.copyOfRange(content, 900, 1000));
+  }
+
+  @Test
+  void rangeEndPastTheFileIsClamped() throws Exception {
+    perform(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=990-5000"), 206)
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"));
+  }
+
+  @Test
+  void rangeStartingAfterTheEndIsNotSatisfiable() throws Exception {
+    MvcResult result =
+        perform(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=1000-"), 416)
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void malformedRangeGetsTheWholeFile() throws Exception {
+    expectWholeFile(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=abc"));
+    expectWholeFile(get(URL, "a1").header(HttpHeaders.RANGE, "items=0-10"));
+  }
+
+  @Test
+  void multipleRangesGetTheWholeFile() throws Exception {
+    expectWholeFile(get(URL, "a1").header(HttpHeaders.RANGE, "bytes=0-9,20-29"));
+  }
+
+  @Test
+  void ifRangeMismatchGetsTheWholeFile() throws Exception {
+    expectWholeFile(
+        get(URL, "a1")
+            .header(HttpHeaders.RANGE, "bytes=0-99")
+            .header(HttpHeaders.IF_RANGE, "\"outro-hash\""));
+  }
+
+  @Test
+  void ifRangeMatchKeepsTheRange() throws Exception {
+    MockHttpServletRequestBuilder request =
+        get(URL, "a1").header(HttpHeaders.RANGE, "bytes=0-99").header(HttpHeaders.IF_RANGE, ETAG);
+
+    perform(request, 206)
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/1000"));
+  }
+
+  @Test
+  void ifNoneMatchIsNotModified() throws Exception {
+    MvcResult result =
+        perform(get(URL, "a1").header(HttpHeaders.IF_NONE_MATCH, ETAG), 304)
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+
+    perform(get(URL, "a1").header(HttpHeaders.IF_NONE_MATCH, "\"outro-hash\""), 200);
+  }
+
+  private ResultActions perform(MockHttpServletRequestBuilder request, int expectedStatus)
+      throws Exception {
+    return mockMvc.perform(request).andExpect(status().is(expectedStatus));
+  }
+
+  private void expectWholeFile(MockHttpServletRequestBuilder request) throws Exception {
+    MvcResult result =
+        perform(request, 200)
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, SIZE))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(content);
+  }
+}
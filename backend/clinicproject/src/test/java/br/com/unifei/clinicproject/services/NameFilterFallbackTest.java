@@ -0,0 +1,127 @@
+package br.com.unifei.clinicproject.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.unifei.clinicproject.entities.PetEntity;
+import br.com.unifei.clinicproject.entities.TutorEntity;
+import br.com.unifei.clinicproject.repositories.PetRepository;
+import br.com.unifei.clinicproject.repositories.TutorRepository;
+import br.com.unifei.clinicproject.search.NameSearchIndex;
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Filtros de nome, raça e tutor sem o índice de trigramas (respondendo {@code null}, como antes
+ * do primeiro rebuild): o LIKE ignora acentos e maiúsculas dos dois lados, como o índice, e
+ * {@code fuzzy} passa a ser só busca por trecho.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:namefallback")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NameFilterFallbackTest {
+
+  @MockitoBean private NameSearchIndex nameSearchIndex;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private TutorRepository tutorRepository;
+  @Autowired private PetRepository petRepository;
+
+  @BeforeAll
+  void seed() {
+    TutorEntity jose = tutor("José Araújo", 1);
+    TutorEntity maria = tutor("Maria Silva", 2);
+    tutorRepository.saveAll(List.of(jose, maria));
+
+    petRepository.saveAll(
+        List.of(pet("Estrela", "Pastor Alemão", jose), pet("Bolinha", "Poodle", maria)));
+  }
+
+  @BeforeEach
+  void indexNotReady() {
+    when(nameSearchIndex.petsByName(anyString(), anyBoolean())).thenReturn(null);
+    when(nameSearchIndex.petsByBreed(anyString(), anyBoolean())).thenReturn(null);
+    when(nameSearchIndex.tutorsByName(anyString(), anyBoolean())).thenReturn(null);
+  }
+
+  @Test
+  void petNameIgnoresAccentsInTheQuery() throws Exception {
+    assertThat(names(get("/pets").param("name", "ESTRÊLA"))).containsExactly("Estrela");
+  }
+
+  @Test
+  void petBreedIgnoresAccentsInTheColumn() throws Exception {
+    assertThat(names(get("/pets").param("breed", "alemao"))).containsExactly("Estrela");
+  }
+
+  @Test
+  void ownerNameIgnoresAccentsOnBothSides() throws Exception {
+    assertThat(names(get("/pets").param("ownerName", "josé"))).containsExactly("Estrela");
+    assertThat(names(get("/pets").param("ownerName", "araujo"))).containsExactly("Estrela");
+  }
+
+  @Test
+  void tutorNameIgnoresAccents() throws Exception {
+    assertThat(names(get("/tutors/search").param("name", "ARAUJO")))
+        .containsExactly("José Araújo");
+  }
+
+  @Test
+  void fuzzyFallsBackToSubstringMatching() throws Exception {
+    assertThat(names(get("/pets").param("name", "estrla").param("fuzzy", "true"))).isEmpty();
+    assertThat(names(get("/pets").param("name", "trel").param("fuzzy", "true")))
+        .containsExactly("Estrela");
+    assertThat(names(get("/tutors/search").param("name", "mari silva").param("fuzzy", "true")))
+        .isEmpty();
+  }
+
+  private List<String> names(MockHttpServletRequestBuilder request) throws Exception {
+    String body =
+        mockMvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return JsonPath.read(body, "$.items[*].name");
+  }
+
+  private static TutorEntity tutor(String name, int i) {
+    return TutorEntity.builder()
+        .name(name)
+        .cpf(String.format("%011d", i))
+        .email("tutor" + i + "@clinic.test")
+        .phone("35999999999")
+        .address("Rua " + i)
+        .password("x")
+        .build();
+  }
+
+  private static PetEntity pet(String name, String breed, TutorEntity tutor) {
+    return PetEntity.builder()
+        .name(name)
+        .species("Cao")
+        .breed(breed)
+        .sex("F")
+        .birthDate(LocalDate.of(2020, 1, 1))
+        .color("preto")
+        .weight(3.0)
+        .tutor(tutor)
+        .build();
+  }
+}
@@ -0,0 +1,62 @@
+import * as React from "react";
+
+import type { CursorPage } from "@/lib/utils";
+
+// Lista paginada por cursor: recarrega a primeira página quando `deps` mudam e busca as
+// seguintes só quando o usuário pede mais
+export function useCursorList<T>(
+  fetchPage: (cursor?: string) => Promise<CursorPage<T>>,
+  onError: (error: unknown) => void,
+  deps: React.DependencyList
+) {
+  const [items, setItems] = React.useState<T[]>([]);
+  const [next, setNext] = React.useState<string | null>(null);
+  const [loading, setLoading] = React.useState(true);
+  const [loadingMore, setLoadingMore] = React.useState(false);
+
+  const fetchRef = React.useRef(fetchPage);
+  const onErrorRef = React.useRef(onError);
+  fetchRef.current = fetchPage;
+  onErrorRef.current = onError;
+
+  // Respostas de uma busca anterior (filtro já mudou) são descartadas
+  const generation = React.useRef(0);
+
+  const reload = React.useCallback(async () => {
+    const current = ++generation.current;
+    setLoading(true);
+    try {
+      const page = await fetchRef.current();
+      if (current !== generation.current) return;
+      setItems(page.items);
+      setNext(page.next);
+    } catch (error) {
+      if (current === generation.current) onErrorRef.current(error);
+    } finally {
+      if (current === generation.current) setLoading(false);
+    }
+  }, []);
+
+  const loadMore = React.useCallback(async () => {
+    if (!next) return;
+    const current = generation.current;
+    setLoadingMore(true);
+    try {
+      const page = await fetchRef.current(next);
+      if (current !== generation.current) return;
+      setItems((previous) => [...previous, ...page.items]);
+      setNext(page.next);
+    } catch (error) {
+      if (current === generation.current) onErrorRef.current(error);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [next]);
+
+  React.useEffect(() => {
+    reload();
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, deps);
+
+  return { items, loading, loadingMore, hasMore: next !== null, loadMore, reload };
+}
@@ -1,5 +1,5 @@
 import axios from "axios";
-import { BASE_URL } from "../utils";
+import { BASE_URL, CursorPage, PAGE_SIZE } from "../utils";
 import { stripUndefined } from "@/utils/object.utils";
 import {
   CreatePetRequest,
@@ -12,11 +12,12 @@ import {
 const PET_URL = `${BASE_URL}/pets`;
 
 export const listPets = async (
-  params: SearchParams
-): Promise<ListPetResponse[]> => {
+  params: SearchParams,
+  cursor?: string
+): Promise<CursorPage<ListPetResponse>> => {
   const filteredParams = stripUndefined(params);
-  const response = await axios.get<ListPetResponse[]>(`${PET_URL}`, {
-    params: filteredParams,
+  const response = await axios.get<CursorPage<ListPetResponse>>(`${PET_URL}`, {
+    params: { ...filteredParams, cursor, size: PAGE_SIZE },
   });
   return response.data;
 };
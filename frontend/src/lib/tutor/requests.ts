@@ -1,5 +1,5 @@
 import axios from "axios";
-import { BASE_URL } from "../utils";
+import { BASE_URL, CursorPage, PAGE_SIZE } from "../utils";
 import { stripUndefined } from "@/utils/object.utils";
 import {
   CreateTutorRequest,
@@ -20,11 +20,12 @@ export const showTutor = async (id: string): Promise<ListTutorResponse> => {
 };
 
 export const listTutors = async (
-  params?: SearchParams
-): Promise<ListTutorResponse[]> => {
+  params?: SearchParams,
+  cursor?: string
+): Promise<CursorPage<ListTutorResponse>> => {
   const filteredParams = stripUndefined(params);
-  const response = await axios.get<ListTutorResponse[]>(`${TUTOR_URL}/search`, {
-    params: filteredParams,
+  const response = await axios.get<CursorPage<ListTutorResponse>>(`${TUTOR_URL}/search`, {
+    params: { ...filteredParams, cursor, size: PAGE_SIZE },
   });
   return response.data;
 };
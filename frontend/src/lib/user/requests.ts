@@ -1,5 +1,5 @@
 import axios from "axios";
-import { BASE_URL } from "../utils";
+import { BASE_URL, CursorPage, PAGE_SIZE } from "../utils";
 import { stripUndefined } from "@/utils/object.utils";
 import {
   CreateUserRequest,
@@ -20,11 +20,12 @@ export const showUser = async (id: string): Promise<ListUserResponse> => {
 };
 
 export const listUsers = async (
-  params: SearchParams
-): Promise<ListUserResponse[]> => {
+  params: SearchParams,
+  cursor?: string
+): Promise<CursorPage<ListUserResponse>> => {
   const filteredParams = stripUndefined(params);
-  const response = await axios.get<ListUserResponse[]>(`${USER_URL}/search`, {
-    params: filteredParams,
+  const response = await axios.get<CursorPage<ListUserResponse>>(`${USER_URL}/search`, {
+    params: { ...filteredParams, cursor, size: PAGE_SIZE },
   });
   return response.data;
 };
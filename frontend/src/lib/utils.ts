@@ -7,3 +7,11 @@ export function cn(...inputs: ClassValue[]) {
 
 export const BASE_URL =
   import.meta.env.VITE_API_BASE_URL || "http://localhost:8080/service-clinic";
+
+export type CursorPage<T> = {
+  items: T[];
+  next: string | null;
+};
+
+// Itens por página nas listagens; o backend limita em pagination.max-size
+export const PAGE_SIZE = 20;
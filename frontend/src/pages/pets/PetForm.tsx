@@ -32,6 +32,8 @@ const PetForm = () => {
   const [loading, setLoading] = useState(false);
   const [initialLoading, setInitialLoading] = useState(isEdit);
   const [tutores, setTutores] = useState<ListTutorResponse[]>([]);
+  const [tutorSearch, setTutorSearch] = useState("");
+  const [selectedTutor, setSelectedTutor] = useState<ListTutorResponse | null>(null);
 
   const {
     register,
@@ -50,20 +52,36 @@ const PetForm = () => {
   });
 
   useEffect(() => {
-    loadTutores();
     if (isEdit && id) {
       loadPet(id)
     }
   }, [id]);
 
-  const loadTutores = async () => {
-    try {
-      const data = await listTutors();
-      setTutores(data);
-    } catch (error) {
-      toast.error("Erro ao carregar tutores");
-    }
-  };
+  // O filtro por nome roda no servidor: a lista mostra só a primeira página de resultados
+  useEffect(() => {
+    if (isEdit) return;
+
+    let cancelled = false;
+    const timeout = setTimeout(async () => {
+      try {
+        const page = await listTutors({ name: tutorSearch });
+        if (!cancelled) setTutores(page.items);
+      } catch (error) {
+        if (!cancelled) toast.error("Erro ao carregar tutores");
+      }
+    }, 300);
+
+    return () => {
+      cancelled = true;
+      clearTimeout(timeout);
+    };
+  }, [tutorSearch, isEdit]);
+
+  // O tutor escolhido continua na lista mesmo que a busca mude
+  const tutorOptions =
+    selectedTutor && !tutores.some((tutor) => tutor.id === selectedTutor.id)
+      ? [selectedTutor, ...tutores]
+      : tutores;
 
   const loadPet = async (petId: string) => {
     try {
@@ -298,16 +316,29 @@ const PetForm = () => {
               <Label htmlFor="tutorId">
                 Tutor <span className="text-destructive">*</span>
               </Label>
+              <Input
+                placeholder="Buscar tutor pelo nome..."
+                value={tutorSearch}
+                onChange={(e) => setTutorSearch(e.target.value)}
+              />
               <Controller
                 name="tutorId"
                 control={control}
                 render={({ field }) => (
-                  <Select value={field.value} onValueChange={field.onChange}>
+                  <Select
+                    value={field.value}
+                    onValueChange={(value) => {
+                      field.onChange(value);
+                      setSelectedTutor(
+                        tutorOptions.find((tutor) => tutor.id === value) ?? null
+                      );
+                    }}
+                  >
                     <SelectTrigger>
                       <SelectValue placeholder="Selecione o tutor" />
                     </SelectTrigger>
                     <SelectContent>
-                      {tutores.map((tutor) => (
+                      {tutorOptions.map((tutor) => (
                         <SelectItem key={tutor.id} value={tutor.id}>
                           {tutor.name}
                         </SelectItem>
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState } from 'react';
 import {  useNavigate } from 'react-router-dom';
 import { Plus, Search, Eye, Pencil, Trash2, Loader2 } from 'lucide-react';
 import { Button } from '@/components/ui/button';
@@ -13,12 +13,10 @@ import {  PetSpecies } from '@/types';
 import { mockPetsApi } from '@/lib/mockApi';
 import ConfirmDialog from '@/components/ConfirmDialog';
 import { listPets, removePet } from '@/lib/pet/requests';
-import { ListPetResponse } from '@/lib/pet/types';
+import { useCursorList } from '@/hooks/use-cursor-list';
 
 const PetList = () => {
   const navigate = useNavigate();
-  const [pets, setPets] = useState<ListPetResponse[]>([]);
-  const [loading, setLoading] = useState(true);
   const [deleteId, setDeleteId] = useState<string | null>(null);
   
   // Filters
@@ -28,28 +26,31 @@ const PetList = () => {
   const [ownerFilter, setOwnerFilter] = useState('');
   const [ownerCpfFilter, setOwnerCpfFilter] = useState('');
 
-  useEffect(() => {
-    loadPets();
-  }, [nameFilter, speciesFilter, breedFilter, ownerFilter, ownerCpfFilter]);
-
-  const loadPets = async () => {
-    try {
-      setLoading(true);
-      const response = await listPets({
-        name: nameFilter,
-        species: speciesFilter !== 'ALL' ? speciesFilter : undefined,
-        breed: breedFilter,
-        ownerName: ownerFilter,
-        ownerCpf: ownerCpfFilter,
-      });
-      setPets(response);
-    } catch (error) {
+  const {
+    items: pets,
+    loading,
+    loadingMore,
+    hasMore,
+    loadMore,
+    reload: loadPets,
+  } = useCursorList(
+    (cursor) =>
+      listPets(
+        {
+          name: nameFilter,
+          species: speciesFilter !== 'ALL' ? speciesFilter : undefined,
+          breed: breedFilter,
+          ownerName: ownerFilter,
+          ownerCpf: ownerCpfFilter,
+        },
+        cursor
+      ),
+    (error) => {
       toast.error('Erro ao carregar pets');
       console.error(error);
-    } finally {
-      setLoading(false);
-    }
-  };
+    },
+    [nameFilter, speciesFilter, breedFilter, ownerFilter, ownerCpfFilter]
+  );
 
   const handleDelete = async () => {
     if (!deleteId) return;
@@ -206,6 +207,14 @@ const PetList = () => {
               </TableBody>
             </Table>
           )}
+          {!loading && hasMore && (
+            <div className="flex justify-center border-t p-4">
+              <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+                Carregar mais
+              </Button>
+            </div>
+          )}
         </div>
       </Card>
 
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { Plus, Search, Eye, Pencil, Trash2, Loader2 } from 'lucide-react';
 import { Button } from '@/components/ui/button';
@@ -15,37 +15,29 @@ import {
 import { toast } from 'sonner';
 import ConfirmDialog from '@/components/ConfirmDialog';
 import { listTutors, removeTutor } from '@/lib/tutor/requests';
-import { ListTutorResponse } from '@/lib/tutor/types';
+import { useCursorList } from '@/hooks/use-cursor-list';
 
 const TutorList = () => {
   const navigate = useNavigate();
   
-  const [tutors, setTutors] = useState<ListTutorResponse[]>([]);
-  const [loading, setLoading] = useState(true);
   const [nameFilter, setNameFilter] = useState('');
   const [cpfFilter, setCpfFilter] = useState('');
   const [emailFilter, setEmailFilter] = useState('');
   const [deleteId, setDeleteId] = useState<string | null>(null);
 
-  useEffect(() => {
-    loadTutors();
-  }, [nameFilter, cpfFilter, emailFilter]);
-
-  const loadTutors = async () => {
-    try {
-      setLoading(true);
-      const response = await listTutors({
-        name: nameFilter,
-        cpf: cpfFilter,
-        email: emailFilter,
-      });
-      setTutors(response);
-    } catch (error) {
-      toast.error(error.message || 'Erro ao carregar tutores');
-    } finally {
-      setLoading(false);
-    }
-  };
+  const {
+    items: tutors,
+    loading,
+    loadingMore,
+    hasMore,
+    loadMore,
+    reload: loadTutors,
+  } = useCursorList(
+    (cursor) =>
+      listTutors({ name: nameFilter, cpf: cpfFilter, email: emailFilter }, cursor),
+    (error) => toast.error((error as Error).message || 'Erro ao carregar tutores'),
+    [nameFilter, cpfFilter, emailFilter]
+  );
 
   const handleDelete = async () => {
     if (!deleteId) return;
@@ -170,6 +162,14 @@ const TutorList = () => {
             </TableBody>
           </Table>
         )}
+        {!loading && hasMore && (
+          <div className="flex justify-center border-t p-4">
+            <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+              {loadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+              Carregar mais
+            </Button>
+          </div>
+        )}
       </Card>
 
       {/* Delete Confirmation */}
@@ -1,4 +1,4 @@
-import { useState, useEffect } from "react";
+import { useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { Plus, Search, Eye, Pencil, Trash2, Loader2, User } from "lucide-react";
 import { Button } from "@/components/ui/button";
@@ -23,13 +23,11 @@ import { Card } from "@/components/ui/card";
 import { toast } from "sonner";
 import { UserRole } from "@/types";
 import ConfirmDialog from "@/components/ConfirmDialog";
-import { ListUserResponse,  } from "@/lib/user/types";
 import { removeUser,listUsers } from "@/lib/user/requests";
+import { useCursorList } from "@/hooks/use-cursor-list";
 
 const UserList = () => {
   const navigate = useNavigate();
-  const [users, setUsers] = useState<ListUserResponse[]>([]);
-  const [loading, setLoading] = useState(true);
   const [deleteId, setDeleteId] = useState<string | null>(null);
 
   // Filters
@@ -37,26 +35,29 @@ const UserList = () => {
   const [cpfFilter, setCpfFilter] = useState("");
   const [roleFilter, setRoleFilter] = useState<UserRole | "ALL">("ALL");
 
-  useEffect(() => {
-    loadUsers();
-  }, [nameFilter, cpfFilter, roleFilter]);
-
-  const loadUsers = async () => {
-    try {
-      setLoading(true);
-      const response = await listUsers({
-        name: nameFilter,
-        cpf: cpfFilter,
-        role: roleFilter !== "ALL" ? roleFilter : undefined,
-      });
-      setUsers(response);
-    } catch (error) {
+  const {
+    items: users,
+    loading,
+    loadingMore,
+    hasMore,
+    loadMore,
+    reload: loadUsers,
+  } = useCursorList(
+    (cursor) =>
+      listUsers(
+        {
+          name: nameFilter,
+          cpf: cpfFilter,
+          role: roleFilter !== "ALL" ? roleFilter : undefined,
+        },
+        cursor
+      ),
+    (error) => {
       toast.error("Erro ao carregar usuários");
       console.error(error);
-    } finally {
-      setLoading(false);
-    }
-  };
+    },
+    [nameFilter, cpfFilter, roleFilter]
+  );
 
   const handleDelete = async () => {
     if (!deleteId) return;
@@ -215,6 +216,14 @@ const UserList = () => {
               </TableBody>
             </Table>
           )}
+          {!loading && hasMore && (
+            <div className="flex justify-center border-t p-4">
+              <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+                Carregar mais
+              </Button>
+            </div>
+          )}
         </div>
       </Card>
 